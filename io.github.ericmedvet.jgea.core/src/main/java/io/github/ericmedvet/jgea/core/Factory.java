@@ -24,6 +24,10 @@ import io.github.ericmedvet.jnb.datastructure.Pair;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.random.RandomGenerator;
 
@@ -32,6 +36,22 @@ public interface Factory<T> {
 
   List<T> build(int n, RandomGenerator random);
 
+  default List<T> build(int n, RandomGenerator random, ExecutorService executor) {
+    return build(n, random);
+  }
+
+  static <K> List<K> buildAll(List<Callable<K>> tasks, ExecutorService executor) {
+    try {
+      List<K> ks = new ArrayList<>(tasks.size());
+      for (Future<K> future : executor.invokeAll(tasks)) {
+        ks.add(future.get());
+      }
+      return ks;
+    } catch (InterruptedException | ExecutionException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   static <T1, T2> Factory<Pair<T1, T2>> pair(Factory<T1> factory1, Factory<T2> factory2) {
     return (n, random) -> {
       List<T1> t1s = factory1.build(n, random);
@@ -56,7 +76,17 @@ public interface Factory<T> {
 
   default <K> Factory<K> then(Function<T, K> f) {
     Factory<T> thisFactory = this;
-    return (n, random) -> thisFactory.build(n, random).stream().map(f).toList();
+    return new Factory<>() {
+      @Override
+      public List<K> build(int n, RandomGenerator random) {
+        return thisFactory.build(n, random).stream().map(f).toList();
+      }
+
+      @Override
+      public List<K> build(int n, RandomGenerator random, ExecutorService executor) {
+        return thisFactory.build(n, random, executor).stream().map(f).toList();
+      }
+    };
   }
 
   default Factory<T> withOptimisticUniqueness(int maxAttempts) {
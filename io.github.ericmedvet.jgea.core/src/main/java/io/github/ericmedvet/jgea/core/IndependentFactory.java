@@ -22,6 +22,9 @@ package io.github.ericmedvet.jgea.core;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Function;
 import java.util.random.RandomGenerator;
 
@@ -52,6 +55,17 @@ public interface IndependentFactory<T> extends Factory<T> {
     return ts;
   }
 
+  @Override
+  default List<T> build(int n, RandomGenerator random, ExecutorService executor) {
+    // one random generator per element, seeded sequentially: the outcome does not depend on the scheduling
+    List<Callable<T>> tasks = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      long seed = random.nextLong();
+      tasks.add(() -> build(new Random(seed)));
+    }
+    return Factory.buildAll(tasks, executor);
+  }
+
   default <K> IndependentFactory<K> then(Function<T, K> f) {
     IndependentFactory<T> thisFactory = this;
     return random -> f.apply(thisFactory.build(random));
@@ -79,6 +79,58 @@ public interface PartiallyOrderedCollection<T> extends Sized {
     };
   }
 
+  static <T> PartiallyOrderedCollection<T> from(
+      Collection<T> all, List<Collection<T>> fronts, Collection<T> lasts, PartialComparator<? super T> comparator) {
+    Collection<T> firsts = fronts.isEmpty() ? List.of() : fronts.getFirst();
+    Set<T> extremes = Collections.newSetFromMap(new IdentityHashMap<>());
+    extremes.addAll(firsts);
+    extremes.addAll(lasts);
+    Collection<T> mids = all.stream().filter(t -> !extremes.contains(t)).toList();
+    List<Collection<T>> unmodifiableFronts =
+        fronts.stream().map(Collections::unmodifiableCollection).toList();
+    return new PartiallyOrderedCollection<>() {
+      @Override
+      public void add(T t) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Collection<T> all() {
+        return all;
+      }
+
+      @Override
+      public Collection<T> firsts() {
+        return firsts;
+      }
+
+      @Override
+      public List<Collection<T>> fronts() {
+        return unmodifiableFronts;
+      }
+
+      @Override
+      public Collection<T> lasts() {
+        return lasts;
+      }
+
+      @Override
+      public Collection<T> mids() {
+        return mids;
+      }
+
+      @Override
+      public boolean remove(T t) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public PartialComparator<? super T> comparator() {
+        return comparator;
+      }
+    };
+  }
+
   static <T> PartiallyOrderedCollection<T> from(T t) {
     Collection<T> collection = List.of(t);
     return new PartiallyOrderedCollection<>() {
@@ -24,9 +24,14 @@ import io.github.ericmedvet.jgea.core.representation.grammar.Chooser;
 import io.github.ericmedvet.jgea.core.representation.grammar.Developer;
 import io.github.ericmedvet.jnb.datastructure.Grid;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 
 public class StandardGridDeveloper<T> implements Developer<T, Grid<T>, GridGrammar.ReferencedGrid<T>> {
   private final GridGrammar<T> grammar;
@@ -67,83 +72,104 @@ public class StandardGridDeveloper<T> implements Developer<T, Grid<T>, GridGramm
 
   public record Decorated(int iteration, int nOfFreeSides) {}
 
-  private static int freeSides(Grid<?> g, Grid.Key k) {
+  private static final class OffsetGrid<V> {
+    private Object[] cells;
+    private int x0;
+    private int y0;
+    private int w;
+    private int h;
+
+    private OffsetGrid() {
+      cells = new Object[1];
+      w = 1;
+      h = 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V get(int x, int y) {
+      int lx = x - x0;
+      int ly = y - y0;
+      if (lx < 0 || lx >= w || ly < 0 || ly >= h) {
+        return null;
+      }
+      return (V) cells[ly * w + lx];
+    }
+
+    private V get(Grid.Key k) {
+      return get(k.x(), k.y());
+    }
+
+    private void set(Grid.Key k, V v) {
+      int lx = k.x() - x0;
+      int ly = k.y() - y0;
+      if (lx < 0 || lx >= w || ly < 0 || ly >= h) {
+        // grow by (at least) doubling along the exceeded direction(s)
+        int newX0 = (lx < 0) ? Math.min(k.x(), x0 - w) : x0;
+        int newX1 = (lx >= w) ? Math.max(k.x() + 1, x0 + 2 * w) : (x0 + w);
+        int newY0 = (ly < 0) ? Math.min(k.y(), y0 - h) : y0;
+        int newY1 = (ly >= h) ? Math.max(k.y() + 1, y0 + 2 * h) : (y0 + h);
+        int newW = newX1 - newX0;
+        Object[] newCells = new Object[newW * (newY1 - newY0)];
+        for (int y = 0; y < h; y++) {
+          System.arraycopy(cells, y * w, newCells, (y + y0 - newY0) * newW + (x0 - newX0), w);
+        }
+        cells = newCells;
+        x0 = newX0;
+        y0 = newY0;
+        w = newW;
+        h = newY1 - newY0;
+        lx = k.x() - x0;
+        ly = k.y() - y0;
+      }
+      cells[ly * w + lx] = v;
+    }
+  }
+
+  private static int freeSides(OffsetGrid<?> g, Grid.Key k) {
     int n = 0;
-    n = n + ((k.x() < 1 || g.get(k.x() - 1, k.y()) == null) ? 1 : 0);
-    n = n + ((k.x() >= g.w() - 1 || g.get(k.x() + 1, k.y()) == null) ? 1 : 0);
-    n = n + ((k.y() < 1 || g.get(k.x(), k.y() - 1) == null) ? 1 : 0);
-    n = n + ((k.y() >= g.h() - 1 || g.get(k.x(), k.y() + 1) == null) ? 1 : 0);
+    n = n + ((g.get(k.x() - 1, k.y()) == null) ? 1 : 0);
+    n = n + ((g.get(k.x() + 1, k.y()) == null) ? 1 : 0);
+    n = n + ((g.get(k.x(), k.y() - 1) == null) ? 1 : 0);
+    n = n + ((g.get(k.x(), k.y() + 1) == null) ? 1 : 0);
     return n;
   }
 
-  private static boolean isWriteable(Grid<?> original, GridGrammar.ReferencedGrid<?> replacement, Grid.Key k) {
-    return replacement.grid().entries().stream()
-        .filter(e -> e.value() != null && !e.key().equals(replacement.referenceKey()))
-        .noneMatch(e -> {
-          Grid.Key tK = e.key()
-              .translated(k.x(), k.y())
-              .translated(
-                  -replacement.referenceKey().x(),
-                  -replacement.referenceKey().y());
-          if (!original.isValid(tK)) {
-            return false;
-          }
-          return !original.isValid(tK) || original.get(tK) != null;
-        });
+  private static Grid.Key translated(GridGrammar.ReferencedGrid<?> replacement, Grid.Key repKey, Grid.Key k) {
+    return new Grid.Key(
+        repKey.x() + k.x() - replacement.referenceKey().x(),
+        repKey.y() + k.y() - replacement.referenceKey().y());
   }
 
-  private static <T> Grid<Aged<T>> modify(
-      Grid<Aged<T>> original, GridGrammar.ReferencedGrid<T> replacement, Grid.Key k, int iteration) {
-    List<Grid.Entry<T>> repEntries = replacement.grid().entries().stream()
-        .map(e -> new Grid.Entry<>(
-            e.key()
-                .translated(k.x(), k.y())
-                .translated(
-                    -replacement.referenceKey().x(),
-                    -replacement.referenceKey().y()),
-            e.value()))
-        .toList();
-    int minX = Math.min(repEntries.stream().mapToInt(e -> e.key().x()).min().orElse(0), 0);
-    int maxX = Math.max(repEntries.stream().mapToInt(e -> e.key().x()).max().orElse(0), original.w() - 1);
-    int minY = Math.min(repEntries.stream().mapToInt(e -> e.key().y()).min().orElse(0), 0);
-    int maxY = Math.max(repEntries.stream().mapToInt(e -> e.key().y()).max().orElse(0), original.h() - 1);
-    if (minX >= 0 && maxX < original.w() && minY >= 0 && maxY < original.h()) {
-      // just write elements on the original grid
-      repEntries.stream()
-          .filter(e -> e.value() != null)
-          .forEach(e -> original.set(e.key(), new Aged<>(iteration, e.value())));
-      return original;
-    }
-    // build a new grid and fill it
-    Grid<Aged<T>> enlarged = Grid.create(maxX - minX + 1, maxY - minY + 1);
-    original.entries().forEach(e -> enlarged.set(e.key().translated(-minX, -minY), e.value()));
-    repEntries.stream()
-        .filter(e -> e.value() != null)
-        .forEach(e -> enlarged.set(e.key().translated(-minX, -minY), new Aged<>(iteration, e.value())));
-    return enlarged;
+  private static boolean isWriteable(
+      OffsetGrid<?> original, GridGrammar.ReferencedGrid<?> replacement, Grid.Key k) {
+    return replacement.grid().entries().stream()
+        .filter(e -> e.value() != null && !e.key().equals(replacement.referenceKey()))
+        .noneMatch(e -> original.get(translated(replacement, e.key(), k)) != null);
   }
 
   public Optional<Grid<T>> develop(Chooser<T, GridGrammar.ReferencedGrid<T>> optionChooser) {
     Set<T> nonTerminalSymbols = grammar.rules().keySet();
     int i = 0;
-    // build a 1x1 grid with the starting symbol
-    Grid<Aged<T>> polyomino = Grid.create(1, 1, new Aged<>(i, grammar.startingSymbol()));
-    while (true) {
-      // find the candidates
-      final Grid<Aged<T>> finalPolyomino = polyomino;
-      List<Grid.Entry<Decorated>> candidates = polyomino.entries().stream()
-          .filter(e -> e.value() != null
-              && nonTerminalSymbols.contains(e.value().t()))
-          .map(e -> new Grid.Entry<>(
-              e.key(), new Decorated(e.value().iteration, freeSides(finalPolyomino, e.key()))))
-          .toList();
-      // check if no non-terminal symbols
-      if (candidates.isEmpty()) {
-        return Optional.of(polyomino.map(a -> a == null ? null : a.t()));
-      }
-      // sort the candidates
-      candidates = candidates.stream().sorted(comparator).toList();
-      boolean modified = false;
+    // start with a single cell with the starting symbol; grid bounds grow with each applied production
+    OffsetGrid<Aged<T>> polyomino = new OffsetGrid<>();
+    polyomino.set(new Grid.Key(0, 0), new Aged<>(i, grammar.startingSymbol()));
+    int minX = 0;
+    int maxX = 0;
+    int minY = 0;
+    int maxY = 0;
+    // candidates are kept sorted and updated only around modified cells; ties are broken by row-major position
+    NavigableSet<Grid.Entry<Decorated>> candidates = new TreeSet<>(comparator
+        .thenComparingInt((Grid.Entry<Decorated> e) -> e.key().y())
+        .thenComparingInt(e -> e.key().x()));
+    Map<Grid.Key, Grid.Entry<Decorated>> candidateEntries = new HashMap<>();
+    if (nonTerminalSymbols.contains(grammar.startingSymbol())) {
+      Grid.Entry<Decorated> entry = new Grid.Entry<>(new Grid.Key(0, 0), new Decorated(i, 4));
+      candidates.add(entry);
+      candidateEntries.put(entry.key(), entry);
+    }
+    while (!candidates.isEmpty()) {
+      Grid.Key chosenKey = null;
+      GridGrammar.ReferencedGrid<T> chosenProduction = null;
       for (Grid.Entry<Decorated> candidate : candidates) {
         T symbol = polyomino.get(candidate.key()).t();
         Optional<GridGrammar.ReferencedGrid<T>> production = optionChooser.chooseFor(symbol);
@@ -151,16 +177,57 @@ public class StandardGridDeveloper<T> implements Developer<T, Grid<T>, GridGramm
           return Optional.empty();
         }
         if (overwriting || isWriteable(polyomino, production.get(), candidate.key())) {
-          // modify grid
-          polyomino = modify(polyomino, production.get(), candidate.key(), i);
-          modified = true;
+          chosenKey = candidate.key();
+          chosenProduction = production.get();
           break;
         }
       }
-      if (!modified) {
+      if (chosenProduction == null) {
         return Optional.empty();
       }
+      // modify grid
+      Set<Grid.Key> touchedKeys = new LinkedHashSet<>();
+      for (Grid.Entry<T> e : chosenProduction.grid().entries()) {
+        Grid.Key k = translated(chosenProduction, e.key(), chosenKey);
+        minX = Math.min(minX, k.x());
+        maxX = Math.max(maxX, k.x());
+        minY = Math.min(minY, k.y());
+        maxY = Math.max(maxY, k.y());
+        if (e.value() != null) {
+          polyomino.set(k, new Aged<>(i, e.value()));
+          Grid.Entry<Decorated> oldEntry = candidateEntries.remove(k);
+          if (oldEntry != null) {
+            candidates.remove(oldEntry);
+          }
+          touchedKeys.add(k);
+          touchedKeys.add(k.translated(-1, 0));
+          touchedKeys.add(k.translated(1, 0));
+          touchedKeys.add(k.translated(0, -1));
+          touchedKeys.add(k.translated(0, 1));
+        }
+      }
+      // update candidates around modified cells
+      for (Grid.Key k : touchedKeys) {
+        Aged<T> aged = polyomino.get(k);
+        if (aged == null || !nonTerminalSymbols.contains(aged.t())) {
+          continue;
+        }
+        Grid.Entry<Decorated> oldEntry = candidateEntries.remove(k);
+        if (oldEntry != null) {
+          candidates.remove(oldEntry);
+        }
+        Grid.Entry<Decorated> entry = new Grid.Entry<>(k, new Decorated(aged.iteration(), freeSides(polyomino, k)));
+        candidates.add(entry);
+        candidateEntries.put(k, entry);
+      }
       i = i + 1;
     }
+    // no more non-terminal symbols
+    final int finalMinX = minX;
+    final int finalMinY = minY;
+    return Optional.of(Grid.create(maxX - minX + 1, maxY - minY + 1, (x, y) -> {
+      Aged<T> aged = polyomino.get(x + finalMinX, y + finalMinY);
+      return aged == null ? null : aged.t();
+    }));
   }
 }
@@ -0,0 +1,177 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.representation.grammar.string;
+
+import io.github.ericmedvet.jnb.datastructure.Pair;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CompiledGrammar<T> {
+
+  private static final int CACHE_SIZE = 64;
+  // keyed by a snapshot of the grammar content, as StringGrammar is mutable and does not override equals()
+  private static final Map<Key, CompiledGrammar<?>> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, CompiledGrammar<?>> eldest) {
+      return size() > CACHE_SIZE;
+    }
+  };
+
+  private final List<T> symbols;
+  private final Map<T, Integer> ids;
+  private final int startingSymbol;
+  private final int[][][] options;
+  private final List<List<List<T>>> symbolOptions;
+  private final Map<T, Pair<Double, Double>> symbolsMinMaxDepths;
+  private final Map<T, List<Integer>> shortestOptionIndexesMap;
+  private final Set<T> reachableSymbols;
+
+  private CompiledGrammar(StringGrammar<T> grammar) {
+    symbols = new ArrayList<>();
+    ids = new HashMap<>();
+    grammar.rules().keySet().forEach(this::register);
+    grammar.rules().values().forEach(os -> os.forEach(o -> o.forEach(this::register)));
+    startingSymbol = register(grammar.startingSymbol());
+    options = new int[symbols.size()][][];
+    symbolOptions = new ArrayList<>(symbols.size());
+    for (int id = 0; id < symbols.size(); id++) {
+      List<List<T>> localOptions = grammar.rules().get(symbols.get(id));
+      if (localOptions != null) {
+        localOptions = localOptions.stream().map(List::copyOf).toList();
+        options[id] = localOptions.stream()
+            .map(o -> o.stream().mapToInt(ids::get).toArray())
+            .toArray(int[][]::new);
+      }
+      symbolOptions.add(localOptions);
+    }
+    // Pair is a record, hence copying the maps is enough for making them deeply immutable
+    symbolsMinMaxDepths =
+        Collections.unmodifiableMap(new LinkedHashMap<>(GrammarUtils.computeSymbolsMinMaxDepths(grammar)));
+    Map<T, List<Integer>> localShortestOptionIndexesMap = new LinkedHashMap<>();
+    GrammarUtils.computeShortestOptionIndexesMap(grammar)
+        .forEach((symbol, indexes) -> localShortestOptionIndexesMap.put(symbol, List.copyOf(indexes)));
+    shortestOptionIndexesMap = Collections.unmodifiableMap(localShortestOptionIndexesMap);
+    reachableSymbols = Collections.unmodifiableSet(computeReachableSymbols());
+  }
+
+  private record Key(Object startingSymbol, Map<?, ?> rules) {}
+
+  @SuppressWarnings("unchecked")
+  public static <T> CompiledGrammar<T> from(StringGrammar<T> grammar) {
+    Map<T, List<List<T>>> rules = new LinkedHashMap<>();
+    grammar.rules().forEach((symbol, options) ->
+        rules.put(symbol, options.stream().map(List::copyOf).toList()));
+    Key key = new Key(grammar.startingSymbol(), rules);
+    synchronized (CACHE) {
+      return (CompiledGrammar<T>) CACHE.computeIfAbsent(key, k -> new CompiledGrammar<>(grammar));
+    }
+  }
+
+  private Set<T> computeReachableSymbols() {
+    boolean[] reached = new boolean[symbols.size()];
+    Deque<Integer> toVisit = new ArrayDeque<>();
+    reached[startingSymbol] = true;
+    toVisit.push(startingSymbol);
+    while (!toVisit.isEmpty()) {
+      int id = toVisit.pop();
+      if (options[id] != null) {
+        for (int[] option : options[id]) {
+          for (int optionSymbol : option) {
+            if (!reached[optionSymbol]) {
+              reached[optionSymbol] = true;
+              toVisit.push(optionSymbol);
+            }
+          }
+        }
+      }
+    }
+    Set<T> reachable = new LinkedHashSet<>();
+    for (int id = 0; id < symbols.size(); id++) {
+      if (reached[id]) {
+        reachable.add(symbols.get(id));
+      }
+    }
+    return reachable;
+  }
+
+  private int register(T symbol) {
+    return ids.computeIfAbsent(symbol, s -> {
+      symbols.add(s);
+      return symbols.size() - 1;
+    });
+  }
+
+  public int id(T symbol) {
+    Integer id = ids.get(symbol);
+    return id == null ? -1 : id;
+  }
+
+  public boolean isNonTerminal(int id) {
+    return options[id] != null;
+  }
+
+  public int nOfOptions(int id) {
+    return options[id] == null ? 0 : options[id].length;
+  }
+
+  public int nOfSymbols() {
+    return symbols.size();
+  }
+
+  public int optionSize(int id, int optionIndex) {
+    return options[id][optionIndex].length;
+  }
+
+  public int optionSymbol(int id, int optionIndex, int position) {
+    return options[id][optionIndex][position];
+  }
+
+  public List<List<T>> symbolOptions(int id) {
+    return symbolOptions.get(id);
+  }
+
+  public Set<T> reachableSymbols() {
+    return reachableSymbols;
+  }
+
+  public Map<T, List<Integer>> shortestOptionIndexesMap() {
+    return shortestOptionIndexesMap;
+  }
+
+  public int startingSymbol() {
+    return startingSymbol;
+  }
+
+  public T symbol(int id) {
+    return symbols.get(id);
+  }
+
+  public Map<T, Pair<Double, Double>> symbolsMinMaxDepths() {
+    return symbolsMinMaxDepths;
+  }
+}
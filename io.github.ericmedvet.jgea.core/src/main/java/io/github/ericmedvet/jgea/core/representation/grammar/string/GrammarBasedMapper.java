@@ -26,9 +26,11 @@ import java.util.function.Function;
 public abstract class GrammarBasedMapper<G, T> implements Function<G, Tree<T>> {
 
   protected final StringGrammar<T> grammar;
+  protected final CompiledGrammar<T> compiledGrammar;
 
   public GrammarBasedMapper(StringGrammar<T> grammar) {
     this.grammar = grammar;
+    compiledGrammar = CompiledGrammar.from(grammar);
   }
 
   public StringGrammar<T> getGrammar() {
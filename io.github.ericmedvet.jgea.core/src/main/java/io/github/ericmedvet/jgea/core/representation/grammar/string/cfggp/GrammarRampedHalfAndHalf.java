@@ -25,6 +25,9 @@ import io.github.ericmedvet.jgea.core.representation.grammar.string.StringGramma
 import io.github.ericmedvet.jgea.core.representation.tree.Tree;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.random.RandomGenerator;
 
 public class GrammarRampedHalfAndHalf<T> implements Factory<Tree<T>> {
@@ -69,4 +72,33 @@ public class GrammarRampedHalfAndHalf<T> implements Factory<Tree<T>> {
     }
     return trees;
   }
+
+  @Override
+  public List<Tree<T>> build(int n, RandomGenerator random, ExecutorService executor) {
+    // each tree has its own random generator and starting height on the ramp; a failed attempt moves to the next
+    // height, as in the sequential build
+    List<Callable<Tree<T>>> tasks = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      long seed = random.nextLong();
+      int startingHeight = minHeight + i % (maxHeight - minHeight + 1);
+      boolean full = i < n / 2;
+      tasks.add(() -> {
+        RandomGenerator localRandom = new Random(seed);
+        int height = startingHeight;
+        while (true) {
+          Tree<T> tree = full
+              ? fullGrammarTreeFactory.build(localRandom, height)
+              : growGrammarTreeFactory.build(localRandom, height);
+          if (tree != null) {
+            return tree;
+          }
+          height = height + 1;
+          if (height > maxHeight) {
+            height = minHeight;
+          }
+        }
+      });
+    }
+    return Factory.buildAll(tasks, executor);
+  }
 }
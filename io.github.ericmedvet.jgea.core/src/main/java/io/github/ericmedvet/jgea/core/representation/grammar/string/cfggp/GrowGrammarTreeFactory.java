@@ -21,7 +21,7 @@
 package io.github.ericmedvet.jgea.core.representation.grammar.string.cfggp;
 
 import io.github.ericmedvet.jgea.core.Factory;
-import io.github.ericmedvet.jgea.core.representation.grammar.string.GrammarUtils;
+import io.github.ericmedvet.jgea.core.representation.grammar.string.CompiledGrammar;
 import io.github.ericmedvet.jgea.core.representation.grammar.string.StringGrammar;
 import io.github.ericmedvet.jgea.core.representation.tree.Tree;
 import io.github.ericmedvet.jnb.datastructure.Pair;
@@ -42,7 +42,7 @@ public class GrowGrammarTreeFactory<T> implements Factory<Tree<T>> {
   public GrowGrammarTreeFactory(int maxHeight, StringGrammar<T> grammar) {
     this.maxHeight = maxHeight;
     this.grammar = grammar;
-    nonTerminalDepths = GrammarUtils.computeSymbolsMinMaxDepths(grammar);
+    nonTerminalDepths = CompiledGrammar.from(grammar).symbolsMinMaxDepths();
   }
 
   @Override
@@ -21,14 +21,15 @@
 package io.github.ericmedvet.jgea.core.representation.grammar.string.ge;
 
 import io.github.ericmedvet.jgea.core.representation.grammar.string.GrammarBasedMapper;
-import io.github.ericmedvet.jgea.core.representation.grammar.string.GrammarUtils;
 import io.github.ericmedvet.jgea.core.representation.grammar.string.StringGrammar;
 import io.github.ericmedvet.jgea.core.representation.sequence.bit.BitString;
 import io.github.ericmedvet.jgea.core.representation.tree.Tree;
 import io.github.ericmedvet.jgea.core.util.IntRange;
 import io.github.ericmedvet.jgea.core.util.Misc;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 
@@ -45,10 +46,10 @@ public class HierarchicalMapper<T> extends GrammarBasedMapper<BitString, T> {
   public HierarchicalMapper(StringGrammar<T> grammar, boolean recursive) {
     super(grammar);
     this.recursive = recursive;
-    shortestOptionIndexesMap = GrammarUtils.computeShortestOptionIndexesMap(grammar);
+    shortestOptionIndexesMap = compiledGrammar.shortestOptionIndexesMap();
   }
 
-  private record EnhancedSymbol<T>(T symbol, IntRange range) {}
+  private record Derivation<T>(Tree<T> tree, int symbol, IntRange range) {}
 
   @Override
   public Tree<T> apply(BitString genotype) {
@@ -63,17 +64,15 @@ public class HierarchicalMapper<T> extends GrammarBasedMapper<BitString, T> {
     return tree;
   }
 
-  private List<T> chooseOption(BitString genotype, IntRange range, List<List<T>> options) {
+  private int chooseOptionIndex(BitString genotype, IntRange range, List<List<T>> options) {
     if (options.size() == 1) {
-      return options.getFirst();
+      return 0;
     }
     double max = Double.NEGATIVE_INFINITY;
-    List<BitString> slices = getOptionSlices(range, options).stream()
-        .map(s -> genotype.slice(s.min(), s.max()))
-        .toList();
+    List<IntRange> slices = getOptionSlices(range, options);
     List<Integer> bestOptionIndexes = new ArrayList<>();
     for (int i = 0; i < options.size(); i++) {
-      double value = optionSliceWeight(slices.get(i));
+      double value = optionSliceWeight(genotype, slices.get(i));
       if (value == max) {
         bestOptionIndexes.add(i);
       } else if (value > max) {
@@ -87,9 +86,9 @@ public class HierarchicalMapper<T> extends GrammarBasedMapper<BitString, T> {
     // in genotype
     if (bestOptionIndexes.size() == 1) {
       index = bestOptionIndexes.get(
-          genotype.slice(range.min(), range.max()).nOfOnes() % bestOptionIndexes.size());
+          genotype.nOfOnes(range.min(), range.max()) % bestOptionIndexes.size());
     }
-    return options.get(index);
+    return index;
   }
 
   protected List<IntRange> getChildrenSlices(IntRange range, List<T> symbols) {
@@ -107,52 +106,53 @@ public class HierarchicalMapper<T> extends GrammarBasedMapper<BitString, T> {
   }
 
   public Tree<T> mapIteratively(BitString genotype, int[] bitUsages) {
-    Tree<EnhancedSymbol<T>> enhancedTree =
-        Tree.of(new EnhancedSymbol<>(grammar.startingSymbol(), new IntRange(0, genotype.size())));
-    while (true) {
-      Tree<EnhancedSymbol<T>> treeToBeReplaced = null;
-      for (Tree<EnhancedSymbol<T>> tree : enhancedTree.leaves()) {
-        if (grammar.rules().containsKey(tree.content().symbol())) {
-          treeToBeReplaced = tree;
-          break;
-        }
-      }
-      if (treeToBeReplaced == null) {
-        break;
+    Tree<T> tree = Tree.of(grammar.startingSymbol());
+    // leftmost derivation: a stack of the pending leaves, the leftmost on top
+    Deque<Derivation<T>> derivations = new ArrayDeque<>();
+    derivations.push(new Derivation<>(tree, compiledGrammar.startingSymbol(), new IntRange(0, genotype.size())));
+    while (!derivations.isEmpty()) {
+      Derivation<T> derivation = derivations.pop();
+      if (!compiledGrammar.isNonTerminal(derivation.symbol())) {
+        continue;
       }
       // get genotype
-      T symbol = treeToBeReplaced.content().symbol();
-      IntRange symbolRange = treeToBeReplaced.content().range();
-      List<List<T>> options = grammar.rules().get(symbol);
+      T symbol = derivation.tree().content();
+      IntRange symbolRange = derivation.range();
+      List<List<T>> options = compiledGrammar.symbolOptions(derivation.symbol());
       // get option
-      List<T> symbols;
+      int optionIndex;
       if ((symbolRange.extent()) < options.size()) {
         int count = (symbolRange.extent() > 0)
-            ? genotype.slice(symbolRange.min(), symbolRange.max()).nOfOnes()
+            ? genotype.nOfOnes(symbolRange.min(), symbolRange.max())
             : genotype.nOfOnes();
-        int index = shortestOptionIndexesMap
+        optionIndex = shortestOptionIndexesMap
             .get(symbol)
             .get(count % shortestOptionIndexesMap.get(symbol).size());
-        symbols = options.get(index);
       } else {
-        symbols = chooseOption(genotype, symbolRange, options);
+        optionIndex = chooseOptionIndex(genotype, symbolRange, options);
         for (int i = symbolRange.min(); i < symbolRange.max(); i++) {
           bitUsages[i] = bitUsages[i] + 1;
         }
       }
+      List<T> symbols = options.get(optionIndex);
       // add children
       List<IntRange> childRanges = getChildrenSlices(symbolRange, symbols);
+      List<Derivation<T>> childDerivations = new ArrayList<>(symbols.size());
       for (int i = 0; i < symbols.size(); i++) {
         IntRange childRange = childRanges.get(i);
         if (childRanges.get(i).equals(symbolRange) && (childRange.extent() > 0)) {
           childRange = new IntRange(symbolRange.min(), symbolRange.max() - 1);
         }
-        Tree<EnhancedSymbol<T>> newChild = Tree.of(new EnhancedSymbol<>(symbols.get(i), childRange));
-        treeToBeReplaced.addChild(newChild);
+        Tree<T> newChild = Tree.of(symbols.get(i));
+        derivation.tree().addChild(newChild);
+        childDerivations.add(new Derivation<>(
+            newChild, compiledGrammar.optionSymbol(derivation.symbol(), optionIndex, i), childRange));
+      }
+      for (int i = childDerivations.size() - 1; i >= 0; i--) {
+        derivations.push(childDerivations.get(i));
       }
     }
-    // convert
-    return Tree.map(enhancedTree, EnhancedSymbol::symbol);
+    return tree;
   }
 
   public Tree<T> mapRecursively(T symbol, IntRange range, BitString genotype, int[] bitUsages) {
@@ -167,15 +167,13 @@ public class HierarchicalMapper<T> extends GrammarBasedMapper<BitString, T> {
       // get option
       List<T> symbols;
       if ((range.extent()) < options.size()) {
-        int count = (range.extent() > 0)
-            ? genotype.slice(range.min(), range.max()).nOfOnes()
-            : genotype.nOfOnes();
+        int count = (range.extent() > 0) ? genotype.nOfOnes(range.min(), range.max()) : genotype.nOfOnes();
         int index = shortestOptionIndexesMap
             .get(symbol)
             .get(count % shortestOptionIndexesMap.get(symbol).size());
         symbols = options.get(index);
       } else {
-        symbols = chooseOption(genotype, range, options);
+        symbols = options.get(chooseOptionIndex(genotype, range, options));
         for (int i = range.min(); i < range.max(); i++) {
           bitUsages[i] = bitUsages[i] + 1;
         }
@@ -196,7 +194,7 @@ public class HierarchicalMapper<T> extends GrammarBasedMapper<BitString, T> {
     return tree;
   }
 
-  protected double optionSliceWeight(BitString slice) {
-    return (double) slice.nOfOnes() / (double) slice.size();
+  protected double optionSliceWeight(BitString genotype, IntRange slice) {
+    return (double) genotype.nOfOnes(slice.min(), slice.max()) / (double) slice.extent();
   }
 }
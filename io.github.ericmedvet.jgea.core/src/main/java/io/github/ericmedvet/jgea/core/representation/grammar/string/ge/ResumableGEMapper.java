@@ -0,0 +1,98 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.representation.grammar.string.ge;
+
+import io.github.ericmedvet.jgea.core.representation.grammar.string.GrammarBasedMapper;
+import io.github.ericmedvet.jgea.core.representation.sequence.bit.BitString;
+import io.github.ericmedvet.jgea.core.representation.tree.Tree;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ResumableGEMapper<T> extends GrammarBasedMapper<BitString, T> {
+
+  private final StandardGEMapper<T> mapper;
+  private final int nOfTraces;
+  private final int checkpointInterval;
+  private final Map<BitString, StandardGEMapper.Derivation> traces;
+
+  public ResumableGEMapper(StandardGEMapper<T> mapper, int nOfTraces, int checkpointInterval) {
+    super(mapper.getGrammar());
+    if (nOfTraces < 1 || checkpointInterval < 1) {
+      throw new IllegalArgumentException(String.format(
+          "Number of traces and checkpoint interval must be positive: %d and %d found",
+          nOfTraces, checkpointInterval));
+    }
+    this.mapper = mapper;
+    this.nOfTraces = nOfTraces;
+    this.checkpointInterval = checkpointInterval;
+    traces = new LinkedHashMap<>(nOfTraces + 1, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<BitString, StandardGEMapper.Derivation> eldest) {
+        return size() > ResumableGEMapper.this.nOfTraces;
+      }
+    };
+  }
+
+  @Override
+  public Tree<T> apply(BitString genotype) {
+    List<Map.Entry<BitString, StandardGEMapper.Derivation>> candidates;
+    synchronized (traces) {
+      StandardGEMapper.Derivation derivation = traces.get(genotype);
+      if (derivation != null) {
+        return mapper.build(derivation.optionIndexes());
+      }
+      // genotypes and derivations are immutable, hence the scan can be done on a snapshot, outside the lock
+      candidates = traces.entrySet().stream().map(e -> Map.entry(e.getKey(), e.getValue())).toList();
+    }
+    StandardGEMapper.Derivation previous = null;
+    StandardGEMapper.Checkpoint from = null;
+    // find the latest checkpoint whose derivation prefix only read codons shared with this genotype
+    for (Map.Entry<BitString, StandardGEMapper.Derivation> entry : candidates) {
+      int mismatch = Arrays.mismatch(genotype.bits(), entry.getKey().bits());
+      List<StandardGEMapper.Checkpoint> checkpoints = entry.getValue().checkpoints();
+      for (int i = checkpoints.size() - 1; i >= 0; i--) {
+        StandardGEMapper.Checkpoint checkpoint = checkpoints.get(i);
+        if (from != null && checkpoint.step() <= from.step()) {
+          break;
+        }
+        if (checkpoint.step() > 0
+            && checkpoint.codonIndex() * mapper.codonLength <= mismatch
+            && (checkpoint.codonIndex() + 1) * mapper.codonLength <= genotype.size()) {
+          previous = entry.getValue();
+          from = checkpoint;
+          break;
+        }
+      }
+    }
+    StandardGEMapper.Derivation derivation = mapper.derive(genotype, previous, from, checkpointInterval);
+    synchronized (traces) {
+      traces.put(genotype, derivation);
+    }
+    return mapper.build(derivation.optionIndexes());
+  }
+
+  @Override
+  public String toString() {
+    return "ResumableGEMapper{" + "mapper=" + mapper + ", nOfTraces=" + nOfTraces + ", checkpointInterval="
+        + checkpointInterval + '}';
+  }
+}
@@ -24,11 +24,15 @@ import io.github.ericmedvet.jgea.core.representation.grammar.string.GrammarBased
 import io.github.ericmedvet.jgea.core.representation.grammar.string.StringGrammar;
 import io.github.ericmedvet.jgea.core.representation.sequence.bit.BitString;
 import io.github.ericmedvet.jgea.core.representation.tree.Tree;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 
 public class StandardGEMapper<T> extends GrammarBasedMapper<BitString, T> {
 
-  private final int codonLength;
+  protected final int codonLength;
   private final int maxWraps;
 
   public StandardGEMapper(int codonLength, int maxWraps, StringGrammar<T> grammar) {
@@ -37,25 +41,87 @@ public class StandardGEMapper<T> extends GrammarBasedMapper<BitString, T> {
     this.maxWraps = maxWraps;
   }
 
+  protected record Checkpoint(int step, int codonIndex, int[] pendingSymbols) {}
+
+  protected record Derivation(int[] optionIndexes, List<Checkpoint> checkpoints) {}
+
   @Override
   public Tree<T> apply(BitString genotype) {
+    return build(derive(genotype, null, null, 0).optionIndexes());
+  }
+
+  protected Tree<T> build(int[] optionIndexes) {
+    Tree<T> tree = Tree.of(grammar.startingSymbol());
+    // leftmost derivation: a stack of the pending non-terminal leaves, the leftmost on top
+    Deque<Tree<T>> trees = new ArrayDeque<>();
+    Deque<Integer> symbols = new ArrayDeque<>();
+    if (compiledGrammar.isNonTerminal(compiledGrammar.startingSymbol())) {
+      trees.push(tree);
+      symbols.push(compiledGrammar.startingSymbol());
+    }
+    int step = 0;
+    while (!trees.isEmpty()) {
+      Tree<T> treeToBeReplaced = trees.pop();
+      int symbol = symbols.pop();
+      int optionIndex = optionIndexes[step];
+      int optionSize = compiledGrammar.optionSize(symbol, optionIndex);
+      step = step + 1;
+      // add children
+      List<Tree<T>> children = new ArrayList<>(optionSize);
+      for (int i = 0; i < optionSize; i++) {
+        Tree<T> newChild = Tree.of(compiledGrammar.symbol(compiledGrammar.optionSymbol(symbol, optionIndex, i)));
+        treeToBeReplaced.addChild(newChild);
+        children.add(newChild);
+      }
+      for (int i = optionSize - 1; i >= 0; i--) {
+        int childSymbol = compiledGrammar.optionSymbol(symbol, optionIndex, i);
+        if (compiledGrammar.isNonTerminal(childSymbol)) {
+          trees.push(children.get(i));
+          symbols.push(childSymbol);
+        }
+      }
+    }
+    return tree;
+  }
+
+  protected Derivation derive(
+      BitString genotype, Derivation previous, Checkpoint from, int checkpointInterval) {
     if (genotype.size() < codonLength) {
       throw new IllegalArgumentException(String.format("Short genotype (%d<%d)", genotype.size(), codonLength));
     }
-    Tree<T> tree = Tree.of(grammar.startingSymbol());
-    int currentCodonIndex = 0;
-    int wraps = 0;
-    while (true) {
-      Tree<T> treeToBeReplaced = null;
-      for (Tree<T> node : tree.leaves()) {
-        if (grammar.rules().containsKey(node.content())) {
-          treeToBeReplaced = node;
-          break;
-        }
+    // pending non-terminals are kept in an array used as a stack, the leftmost on top
+    int[] pendingSymbols;
+    int nOfPendingSymbols;
+    int[] optionIndexes;
+    int step;
+    int currentCodonIndex;
+    List<Checkpoint> checkpoints = new ArrayList<>();
+    if (from == null) {
+      pendingSymbols = new int[16];
+      nOfPendingSymbols = 0;
+      if (compiledGrammar.isNonTerminal(compiledGrammar.startingSymbol())) {
+        pendingSymbols[0] = compiledGrammar.startingSymbol();
+        nOfPendingSymbols = 1;
       }
-      if (treeToBeReplaced == null) {
-        break;
+      optionIndexes = new int[16];
+      step = 0;
+      currentCodonIndex = 0;
+    } else {
+      pendingSymbols = Arrays.copyOf(from.pendingSymbols(), Math.max(16, 2 * from.pendingSymbols().length));
+      nOfPendingSymbols = from.pendingSymbols().length;
+      optionIndexes = Arrays.copyOf(previous.optionIndexes(), Math.max(16, 2 * from.step()));
+      step = from.step();
+      currentCodonIndex = from.codonIndex();
+      previous.checkpoints().stream().filter(c -> c.step() < from.step()).forEach(checkpoints::add);
+    }
+    int wraps = 0;
+    while (nOfPendingSymbols > 0) {
+      if (checkpointInterval > 0 && wraps == 0 && step % checkpointInterval == 0) {
+        checkpoints.add(
+            new Checkpoint(step, currentCodonIndex, Arrays.copyOf(pendingSymbols, nOfPendingSymbols)));
       }
+      nOfPendingSymbols = nOfPendingSymbols - 1;
+      int symbol = pendingSymbols[nOfPendingSymbols];
       // get codon index and option
       if ((currentCodonIndex + 1) * codonLength > genotype.size()) {
         wraps = wraps + 1;
@@ -64,21 +130,31 @@ public class StandardGEMapper<T> extends GrammarBasedMapper<BitString, T> {
           throw new IllegalArgumentException(String.format("Too many wraps (%d>%d)", wraps, maxWraps));
         }
       }
-      List<List<T>> options = grammar.rules().get(treeToBeReplaced.content());
+      int nOfOptions = compiledGrammar.nOfOptions(symbol);
       int optionIndex = 0;
-      if (options.size() > 1) {
-        optionIndex = genotype.slice(currentCodonIndex * codonLength, (currentCodonIndex + 1) * codonLength)
-                .toInt()
-            % options.size();
+      if (nOfOptions > 1) {
+        optionIndex = genotype.toInt(currentCodonIndex * codonLength, (currentCodonIndex + 1) * codonLength)
+            % nOfOptions;
         currentCodonIndex = currentCodonIndex + 1;
       }
-      // add children
-      for (T t : options.get(optionIndex)) {
-        Tree<T> newChild = Tree.of(t);
-        treeToBeReplaced.addChild(newChild);
+      if (step == optionIndexes.length) {
+        optionIndexes = Arrays.copyOf(optionIndexes, 2 * optionIndexes.length);
+      }
+      optionIndexes[step] = optionIndex;
+      step = step + 1;
+      // push the non-terminals of the option, rightmost first
+      for (int i = compiledGrammar.optionSize(symbol, optionIndex) - 1; i >= 0; i--) {
+        int childSymbol = compiledGrammar.optionSymbol(symbol, optionIndex, i);
+        if (compiledGrammar.isNonTerminal(childSymbol)) {
+          if (nOfPendingSymbols == pendingSymbols.length) {
+            pendingSymbols = Arrays.copyOf(pendingSymbols, 2 * pendingSymbols.length);
+          }
+          pendingSymbols[nOfPendingSymbols] = childSymbol;
+          nOfPendingSymbols = nOfPendingSymbols + 1;
+        }
       }
     }
-    return tree;
+    return new Derivation(Arrays.copyOf(optionIndexes, step), checkpoints);
   }
 
   @Override
@@ -118,11 +118,11 @@ public class WeightedHierarchicalMapper<T> extends HierarchicalMapper<T> {
   }
 
   @Override
-  protected double optionSliceWeight(BitString slice) {
+  protected double optionSliceWeight(BitString genotype, IntRange slice) {
     if (!weightOptions) {
-      return super.optionSliceWeight(slice);
+      return super.optionSliceWeight(genotype, slice);
     }
-    return slice.nOfOnes();
+    return genotype.nOfOnes(slice.min(), slice.max());
   }
 
   @Override
@@ -0,0 +1,217 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jgea.core.representation.graph;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class AdjacencyListGraph<N, A> implements Graph<N, A>, Serializable {
+  private Indexes<N, A> indexes;
+
+  public AdjacencyListGraph() {
+    indexes = new Indexes<>(new LinkedHashSet<>(), new LinkedHashMap<>(), new HashMap<>(), new HashMap<>());
+  }
+
+  private AdjacencyListGraph(Indexes<N, A> indexes) {
+    this.indexes = indexes;
+  }
+
+  // the indexes may be shared by many graphs: a graph modifies them in place only if no other graph shares them
+  private record Indexes<N, A>(
+      Set<N> nodes,
+      Map<Arc<N>, A> arcs,
+      Map<N, Set<N>> successors,
+      Map<N, Set<N>> predecessors,
+      AtomicInteger nOfSharers)
+      implements Serializable {
+    private Indexes(Set<N> nodes, Map<Arc<N>, A> arcs, Map<N, Set<N>> successors, Map<N, Set<N>> predecessors) {
+      this(nodes, arcs, successors, predecessors, new AtomicInteger(1));
+    }
+  }
+
+  // reads the current indexes at each access, hence it reflects later modifications of the graph, as a view should
+  private class IndexView<E> extends AbstractSet<E> {
+    private final Function<Indexes<N, A>, Set<E>> accessor;
+
+    private IndexView(Function<Indexes<N, A>, Set<E>> accessor) {
+      this.accessor = accessor;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+      return Collections.unmodifiableSet(accessor.apply(indexes)).iterator();
+    }
+
+    @Override
+    public int size() {
+      return accessor.apply(indexes).size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return accessor.apply(indexes).contains(o);
+    }
+  }
+
+  public static <N1, A1> Graph<N1, A1> copyOf(Graph<N1, A1> other) {
+    if (other instanceof AdjacencyListGraph<N1, A1> adjacencyListGraph) {
+      // the copy shares the indexes with the original until one of the two is modified
+      Indexes<N1, A1> indexes = adjacencyListGraph.indexes;
+      indexes.nOfSharers().incrementAndGet();
+      return new AdjacencyListGraph<>(indexes);
+    }
+    Graph<N1, A1> g = new AdjacencyListGraph<>();
+    other.nodes().forEach(g::addNode);
+    other.arcs().forEach(a -> g.setArcValue(a, other.getArcValue(a)));
+    return g;
+  }
+
+  private static <K> Map<K, Set<K>> deepCopy(Map<K, Set<K>> map) {
+    Map<K, Set<K>> copy = new HashMap<>(map.size());
+    map.forEach((k, s) -> copy.put(k, new LinkedHashSet<>(s)));
+    return copy;
+  }
+
+  private Indexes<N, A> ownIndexes() {
+    if (indexes.nOfSharers().get() > 1) {
+      Indexes<N, A> shared = indexes;
+      indexes = new Indexes<>(
+          new LinkedHashSet<>(shared.nodes()),
+          new LinkedHashMap<>(shared.arcs()),
+          deepCopy(shared.successors()),
+          deepCopy(shared.predecessors()));
+      shared.nOfSharers().decrementAndGet();
+    }
+    return indexes;
+  }
+
+  @Override
+  public void addNode(N node) {
+    if (indexes.nodes().contains(node)) {
+      return;
+    }
+    Indexes<N, A> own = ownIndexes();
+    own.nodes().add(node);
+    own.successors().put(node, new LinkedHashSet<>());
+    own.predecessors().put(node, new LinkedHashSet<>());
+  }
+
+  @Override
+  public Set<Arc<N>> arcs() {
+    return new IndexView<>(is -> is.arcs().keySet());
+  }
+
+  @Override
+  public A getArcValue(Arc<N> arc) {
+    return indexes.arcs().get(arc);
+  }
+
+  @Override
+  public boolean hasArc(Arc<N> arc) {
+    return indexes.arcs().containsKey(arc);
+  }
+
+  @Override
+  public Set<N> nodes() {
+    return new IndexView<>(Indexes::nodes);
+  }
+
+  @Override
+  public Set<N> predecessors(N node) {
+    return new IndexView<>(is -> is.predecessors().getOrDefault(node, Set.of()));
+  }
+
+  @Override
+  public boolean removeArc(Arc<N> arc) {
+    if (!indexes.arcs().containsKey(arc)) {
+      return false;
+    }
+    Indexes<N, A> own = ownIndexes();
+    own.arcs().remove(arc);
+    own.successors().get(arc.getSource()).remove(arc.getTarget());
+    own.predecessors().get(arc.getTarget()).remove(arc.getSource());
+    return true;
+  }
+
+  @Override
+  public boolean removeNode(N node) {
+    if (!indexes.nodes().contains(node)) {
+      return false;
+    }
+    Indexes<N, A> own = ownIndexes();
+    own.nodes().remove(node);
+    for (N successor : own.successors().remove(node)) {
+      own.arcs().remove(Arc.of(node, successor));
+      own.predecessors().get(successor).remove(node);
+    }
+    for (N predecessor : own.predecessors().remove(node)) {
+      own.arcs().remove(Arc.of(predecessor, node));
+      Set<N> predecessorSuccessors = own.successors().get(predecessor);
+      if (predecessorSuccessors != null) {
+        predecessorSuccessors.remove(node);
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void setArcValue(Arc<N> arc, A value) {
+    if (!indexes.nodes().contains(arc.getSource()) || !indexes.nodes().contains(arc.getTarget())) {
+      throw new IllegalArgumentException(String.format(
+          "Cannot set arc value between %s and %s because at least one endpoint node is not present",
+          arc.getSource(), arc.getTarget()));
+    }
+    Indexes<N, A> own = ownIndexes();
+    own.arcs().put(arc, value);
+    own.successors().get(arc.getSource()).add(arc.getTarget());
+    own.predecessors().get(arc.getTarget()).add(arc.getSource());
+  }
+
+  @Override
+  public int size() {
+    return indexes.nodes().size() + indexes.arcs().size();
+  }
+
+  @Override
+  public Set<N> successors(N node) {
+    return new IndexView<>(is -> is.successors().getOrDefault(node, Set.of()));
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(indexes.nodes(), indexes.arcs());
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    AdjacencyListGraph<?, ?> that = (AdjacencyListGraph<?, ?>) o;
+    return indexes.nodes().equals(that.indexes.nodes()) && indexes.arcs().equals(that.indexes.arcs());
+  }
+
+  @Override
+  public String toString() {
+    return "{" + "nodes=" + indexes.nodes() + ", arcs=" + indexes.arcs() + '}';
+  }
+}
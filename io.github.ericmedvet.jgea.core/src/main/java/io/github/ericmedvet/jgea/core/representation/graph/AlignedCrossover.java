@@ -40,7 +40,7 @@ public class AlignedCrossover<N, A> implements Crossover<Graph<N, A>> {
 
   @Override
   public Graph<N, A> recombine(Graph<N, A> parent1, Graph<N, A> parent2, RandomGenerator random) {
-    Graph<N, A> child = new LinkedHashGraph<>();
+    Graph<N, A> child = new AdjacencyListGraph<>();
     // add all nodes
     parent1.nodes().forEach(child::addNode);
     parent2.nodes().forEach(child::addNode);
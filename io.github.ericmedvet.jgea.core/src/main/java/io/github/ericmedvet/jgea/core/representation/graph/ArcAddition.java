@@ -38,7 +38,7 @@ public class ArcAddition<N, A> implements Mutation<Graph<N, A>> {
 
   @Override
   public Graph<N, A> mutate(Graph<N, A> parent, RandomGenerator random) {
-    Graph<N, A> child = LinkedHashGraph.copyOf(parent);
+    Graph<N, A> child = AdjacencyListGraph.copyOf(parent);
     if (!parent.nodes().isEmpty()) {
       List<N> fromNodes = Misc.shuffle(new ArrayList<>(child.nodes()), random);
       List<N> toNodes = Misc.shuffle(new ArrayList<>(child.nodes()), random);
@@ -34,7 +34,7 @@ public class ArcModification<N, A> implements Mutation<Graph<N, A>> {
 
   @Override
   public Graph<N, A> mutate(Graph<N, A> parent, RandomGenerator random) {
-    Graph<N, A> child = LinkedHashGraph.copyOf(parent);
+    Graph<N, A> child = AdjacencyListGraph.copyOf(parent);
     for (Graph.Arc<N> arc : child.arcs()) {
       if (random.nextDouble() < rate) {
         A arcValue = child.getArcValue(arc);
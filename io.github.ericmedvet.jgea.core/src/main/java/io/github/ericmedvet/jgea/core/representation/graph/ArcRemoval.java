@@ -34,7 +34,7 @@ public class ArcRemoval<N, A> implements Mutation<Graph<N, A>> {
 
   @Override
   public Graph<N, A> mutate(Graph<N, A> parent, RandomGenerator random) {
-    Graph<N, A> child = LinkedHashGraph.copyOf(parent);
+    Graph<N, A> child = AdjacencyListGraph.copyOf(parent);
     if (!child.arcs().isEmpty()) {
       Graph.Arc<N> arc = Misc.pickRandomly(child.arcs(), random);
       child.removeArc(arc);
@@ -22,7 +22,12 @@ package io.github.ericmedvet.jgea.core.representation.graph;
 
 import io.github.ericmedvet.jgea.core.util.Sized;
 import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -82,18 +87,6 @@ public interface Graph<N, A> extends Sized {
 
   void setArcValue(Arc<N> arc, A value);
 
-  private static <M> void recursivelyVisit(Graph<M, ?> graph, M node, Set<M> visited) {
-    if (visited.contains(node)) {
-      throw new RuntimeException();
-    }
-    visited.add(node);
-    graph.successors(node).forEach(s -> {
-      Set<M> updated = new HashSet<>(visited);
-      updated.add(node);
-      recursivelyVisit(graph, s, updated);
-    });
-  }
-
   default A getArcValue(N source, N target) {
     return getArcValue(Arc.of(source, target));
   }
@@ -107,21 +100,58 @@ public interface Graph<N, A> extends Sized {
   }
 
   default boolean hasCycles() {
+    // Kahn's algorithm: the graph is acyclic iff all nodes can be topologically sorted
+    Map<N, Integer> inDegrees = new HashMap<>();
+    Deque<N> toVisit = new ArrayDeque<>();
     for (N node : nodes()) {
-      if (hasCycles(node)) {
-        return true;
+      int inDegree = predecessors(node).size();
+      inDegrees.put(node, inDegree);
+      if (inDegree == 0) {
+        toVisit.add(node);
       }
     }
-    return false;
+    int nOfSorted = 0;
+    while (!toVisit.isEmpty()) {
+      N node = toVisit.poll();
+      nOfSorted = nOfSorted + 1;
+      for (N successor : successors(node)) {
+        int inDegree = inDegrees.merge(successor, -1, Integer::sum);
+        if (inDegree == 0) {
+          toVisit.add(successor);
+        }
+      }
+    }
+    return nOfSorted < inDegrees.size();
   }
 
   default boolean hasCycles(N node) {
-    try {
-      recursivelyVisit(this, node, new HashSet<>());
-      return false;
-    } catch (RuntimeException e) {
-      return true;
+    // iterative dfs: a cycle is reachable from node iff an arc reaches a node still on the stack
+    Set<N> onStack = new HashSet<>();
+    Set<N> visited = new HashSet<>();
+    Deque<Iterator<N>> stack = new ArrayDeque<>();
+    Deque<N> path = new ArrayDeque<>();
+    visited.add(node);
+    onStack.add(node);
+    path.push(node);
+    stack.push(successors(node).iterator());
+    while (!stack.isEmpty()) {
+      Iterator<N> iterator = stack.peek();
+      if (iterator.hasNext()) {
+        N successor = iterator.next();
+        if (onStack.contains(successor)) {
+          return true;
+        }
+        if (visited.add(successor)) {
+          onStack.add(successor);
+          path.push(successor);
+          stack.push(successors(successor).iterator());
+        }
+      } else {
+        stack.pop();
+        onStack.remove(path.pop());
+      }
     }
+    return false;
   }
 
   default Set<N> predecessors(N node) {
@@ -49,22 +49,55 @@ public class GraphUtils {
     }
   }
 
+  public static <N> List<N> topologicalOrder(Graph<N, ?> graph, Collection<? extends N> targets) {
+    // iterative post-order dfs on predecessors: each node comes after all of its ancestors
+    List<N> order = new ArrayList<>();
+    Set<N> visited = new HashSet<>();
+    Set<N> onStack = new HashSet<>();
+    Deque<N> path = new ArrayDeque<>();
+    Deque<Iterator<N>> stack = new ArrayDeque<>();
+    for (N target : targets) {
+      if (!visited.add(target)) {
+        continue;
+      }
+      onStack.add(target);
+      path.push(target);
+      stack.push(graph.predecessors(target).iterator());
+      while (!stack.isEmpty()) {
+        Iterator<N> iterator = stack.peek();
+        if (iterator.hasNext()) {
+          N predecessor = iterator.next();
+          if (onStack.contains(predecessor)) {
+            throw new IllegalArgumentException("Cannot sort graph: it has cycles");
+          }
+          if (visited.add(predecessor)) {
+            onStack.add(predecessor);
+            path.push(predecessor);
+            stack.push(graph.predecessors(predecessor).iterator());
+          }
+        } else {
+          stack.pop();
+          N node = path.pop();
+          onStack.remove(node);
+          order.add(node);
+        }
+      }
+    }
+    return order;
+  }
+
   public static <N1, A1, N2, A2> Graph<N2, A2> transform(
       Graph<N1, A1> fromGraph, Function<N1, N2> nodeF, Function<Collection<A1>, A2> arcF) {
-    Graph<N2, A2> toGraph = new LinkedHashGraph<>();
+    Graph<N2, A2> toGraph = new AdjacencyListGraph<>();
     for (N1 fromNode : fromGraph.nodes()) {
       toGraph.addNode(nodeF.apply(fromNode));
     }
+    Map<N1, N1> fromNodes = new HashMap<>();
+    fromGraph.nodes().forEach(n -> fromNodes.putIfAbsent(n, n));
     Map<Graph.Arc<N2>, Collection<A1>> arcMap = new HashMap<>();
     for (Graph.Arc<N1> fromArc : fromGraph.arcs()) {
-      N1 fromSourceNode = fromGraph.nodes().stream()
-          .filter(n -> n.equals(fromArc.getSource()))
-          .findFirst()
-          .orElse(null);
-      N1 fromTargetNode = fromGraph.nodes().stream()
-          .filter(n -> n.equals(fromArc.getTarget()))
-          .findFirst()
-          .orElse(null);
+      N1 fromSourceNode = fromNodes.get(fromArc.getSource());
+      N1 fromTargetNode = fromNodes.get(fromArc.getTarget());
       if (fromSourceNode == null || fromTargetNode == null) {
         throw new IllegalStateException("Cannot find source or target nodes");
       }
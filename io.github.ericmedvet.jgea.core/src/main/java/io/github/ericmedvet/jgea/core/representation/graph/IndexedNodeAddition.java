@@ -67,7 +67,7 @@ public class IndexedNodeAddition<M extends N, N, A> implements Mutation<Graph<In
 
   @Override
   public Graph<IndexedNode<N>, A> mutate(Graph<IndexedNode<N>, A> parent, RandomGenerator random) {
-    Graph<IndexedNode<N>, A> child = LinkedHashGraph.copyOf(parent);
+    Graph<IndexedNode<N>, A> child = AdjacencyListGraph.copyOf(parent);
     if (!child.arcs().isEmpty()) {
       M newNode = nodeFactory.build(random);
       Graph.Arc<IndexedNode<N>> arc = Misc.pickRandomly(child.arcs(), random);
@@ -84,9 +84,8 @@ public class IndexedNodeAddition<M extends N, N, A> implements Mutation<Graph<In
       // get new node type
       int newNodeType = nodeTyper.applyAsInt(newNode);
       // count "siblings"
-      int nSiblings = (int) child.nodes().stream()
-          .filter(n -> child.predecessors(n).contains(arc.getSource())
-              && child.successors(n).contains(arc.getTarget())
+      int nSiblings = (int) child.successors(arc.getSource()).stream()
+          .filter(n -> child.successors(n).contains(arc.getTarget())
               && (newNode.getClass().isAssignableFrom(n.getClass()))
               && nodeTyper.applyAsInt(n.content()) == newNodeType)
           .count();
@@ -55,7 +55,7 @@ public class NodeAddition<N, A> implements Mutation<Graph<N, A>> {
     if (parent.nodes().contains(newNode)) {
       return parent;
     }
-    Graph<N, A> child = LinkedHashGraph.copyOf(parent);
+    Graph<N, A> child = AdjacencyListGraph.copyOf(parent);
     if (!child.arcs().isEmpty()) {
       Graph.Arc<N> arc = Misc.pickRandomly(child.arcs(), random);
       A existingArcValue = child.getArcValue(arc);
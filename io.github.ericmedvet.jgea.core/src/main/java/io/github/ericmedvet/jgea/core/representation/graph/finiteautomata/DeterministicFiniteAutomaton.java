@@ -37,6 +37,7 @@ public class DeterministicFiniteAutomaton<S> implements Extractor<S>, Sized, Ser
 
   private final Graph<State, Set<S>> graph;
   private final State startingState;
+  private transient TransitionTable<S> table;
 
   public DeterministicFiniteAutomaton(Graph<State, Set<S>> graph) {
     check(graph);
@@ -45,6 +46,24 @@ public class DeterministicFiniteAutomaton<S> implements Extractor<S>, Sized, Ser
         .filter(s -> s.getIndex() == 0)
         .findFirst()
         .orElseThrow();
+    table = compile(graph, startingState);
+  }
+
+  private record TransitionTable<S>(Map<S, Integer> alphabet, int[][] transitions, boolean[] accepting) {
+    private static final int NONE = -1;
+    private static final int STARTING_STATE = 0;
+
+    private int[] encode(List<S> sequence) {
+      int[] symbols = new int[sequence.size()];
+      for (int i = 0; i < symbols.length; i++) {
+        symbols[i] = alphabet.getOrDefault(sequence.get(i), NONE);
+      }
+      return symbols;
+    }
+
+    private int next(int state, int symbol) {
+      return symbol == NONE ? NONE : transitions[state][symbol];
+    }
   }
 
   public static class State extends Node {
@@ -76,9 +95,8 @@ public class DeterministicFiniteAutomaton<S> implements Extractor<S>, Sized, Ser
           graph.nodes().stream().filter(s -> s.getIndex() == 0).count()));
     }
     for (State state : graph.nodes()) {
-      Set<Set<K>> outgoingArcValues = graph.arcs().stream()
-          .filter(a -> a.getSource().equals(state))
-          .map(graph::getArcValue)
+      Set<Set<K>> outgoingArcValues = graph.successors(state).stream()
+          .map(t -> graph.getArcValue(state, t))
           .collect(Collectors.toSet());
       if (outgoingArcValues.size() > 1) {
         Set<K> intersection =
@@ -102,6 +120,35 @@ public class DeterministicFiniteAutomaton<S> implements Extractor<S>, Sized, Ser
     };
   }
 
+  private static <K> TransitionTable<K> compile(Graph<State, Set<K>> graph, State startingState) {
+    List<State> states = new ArrayList<>();
+    states.add(startingState);
+    graph.nodes().stream().filter(s -> !s.equals(startingState)).forEach(states::add);
+    Map<State, Integer> stateIndexes = new HashMap<>();
+    for (int i = 0; i < states.size(); i++) {
+      stateIndexes.put(states.get(i), i);
+    }
+    Map<K, Integer> alphabet = new HashMap<>();
+    graph.arcs().forEach(a -> graph.getArcValue(a).forEach(k -> alphabet.putIfAbsent(k, alphabet.size())));
+    int[][] transitions = new int[states.size()][alphabet.size()];
+    boolean[] accepting = new boolean[states.size()];
+    for (int i = 0; i < states.size(); i++) {
+      Arrays.fill(transitions[i], TransitionTable.NONE);
+      accepting[i] = states.get(i).isAccepting();
+      // successors are visited in the same order as the former arc scan: the first matching arc wins
+      for (State successor : graph.successors(states.get(i))) {
+        int target = stateIndexes.get(successor);
+        for (K symbol : graph.getArcValue(states.get(i), successor)) {
+          int symbolIndex = alphabet.get(symbol);
+          if (transitions[i][symbolIndex] == TransitionTable.NONE) {
+            transitions[i][symbolIndex] = target;
+          }
+        }
+      }
+    }
+    return new TransitionTable<>(alphabet, transitions, accepting);
+  }
+
   public static IndependentFactory<State> sequentialStateFactory(final int startingIndex, double acceptanceRate) {
     return new IndependentFactory<>() {
       private int localStartingIndex = startingIndex;
@@ -116,16 +163,18 @@ public class DeterministicFiniteAutomaton<S> implements Extractor<S>, Sized, Ser
 
   @Override
   public Set<IntRange> extract(List<S> sequence) {
+    TransitionTable<S> table = table();
+    int[] symbols = table.encode(sequence);
     Set<IntRange> ranges = new LinkedHashSet<>();
-    State current = startingState;
+    int current = TransitionTable.STARTING_STATE;
     int lastStart = 0;
-    for (int i = 0; i < sequence.size(); i++) {
-      if (current.isAccepting()) {
+    for (int i = 0; i < symbols.length; i++) {
+      if (table.accepting[current]) {
         ranges.add(new IntRange(lastStart, i));
       }
-      current = next(current, sequence.get(i));
-      if (current == null) {
-        current = startingState;
+      current = table.next(current, symbols[i]);
+      if (current == TransitionTable.NONE) {
+        current = TransitionTable.STARTING_STATE;
         i = lastStart;
         lastStart = i + 1;
       }
@@ -135,26 +184,22 @@ public class DeterministicFiniteAutomaton<S> implements Extractor<S>, Sized, Ser
 
   @Override
   public boolean match(List<S> sequence) {
-    State current = startingState;
+    TransitionTable<S> table = table();
+    int current = TransitionTable.STARTING_STATE;
     for (S s : sequence) {
-      State next = next(current, s);
-      if (next == null) {
+      current = table.next(current, table.alphabet.getOrDefault(s, TransitionTable.NONE));
+      if (current == TransitionTable.NONE) {
         return false;
       }
-      current = next;
     }
-    return current.isAccepting();
+    return table.accepting[current];
   }
 
-  private State next(State current, S s) {
-    Set<State> successors = graph.successors(current);
-    for (State successor : successors) {
-      Set<S> symbols = graph.getArcValue(current, successor);
-      if (symbols != null && symbols.contains(s)) {
-        return successor;
-      }
+  private TransitionTable<S> table() {
+    if (table == null) {
+      table = compile(graph, startingState);
     }
-    return null;
+    return table;
   }
 
   @Override
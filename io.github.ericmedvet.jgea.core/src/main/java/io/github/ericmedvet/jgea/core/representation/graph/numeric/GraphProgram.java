@@ -0,0 +1,130 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.representation.graph.numeric;
+
+import io.github.ericmedvet.jgea.core.representation.graph.Graph;
+import io.github.ericmedvet.jgea.core.representation.graph.GraphUtils;
+import io.github.ericmedvet.jgea.core.representation.graph.Node;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+// a graph computing a function compiled to a linear program: the ancestors of the outputs are sorted so that each node
+// comes after its predecessors and writes its value in its own slot of a register file, hence a single pass computes
+// all the outputs; ySlots is null when some input or y variable cannot be mapped by index
+public record GraphProgram(
+    Instruction[] instructions, int nOfInputs, String[] outputNames, int[] outputSlots, int[] ySlots) {
+
+  public record Instruction(Node node, int inputIndex, int[] predecessorSlots, double[] weights) {}
+
+  @FunctionalInterface
+  public interface NodeEvaluator {
+    double evaluate(Instruction instruction, double[] registers);
+  }
+
+  public static <A> GraphProgram compile(
+      Graph<Node, A> graph, List<String> xVarNames, List<String> yVarNames, ToDoubleFunction<? super A> arcWeight) {
+    List<Output> outputs = graph.nodes().stream()
+        .filter(n -> n instanceof Output)
+        .map(n -> (Output) n)
+        .toList();
+    List<Node> order = GraphUtils.topologicalOrder(graph, outputs);
+    Map<Node, Integer> slots = new HashMap<>(order.size());
+    Instruction[] instructions = new Instruction[order.size()];
+    boolean indexable = true;
+    for (int i = 0; i < order.size(); i = i + 1) {
+      Node node = order.get(i);
+      slots.put(node, i);
+      int inputIndex = -1;
+      if (node instanceof Input iNode) {
+        inputIndex = xVarNames.indexOf(iNode.getName());
+        indexable = indexable && inputIndex >= 0;
+      }
+      List<Node> predecessors = graph.predecessors(node).stream()
+          .sorted(Comparator.comparing((Node n) -> n.getClass().getName()).thenComparingInt(Node::getIndex))
+          .toList();
+      int[] predecessorSlots = new int[predecessors.size()];
+      double[] weights = new double[predecessors.size()];
+      for (int j = 0; j < predecessors.size(); j = j + 1) {
+        predecessorSlots[j] = slots.get(predecessors.get(j));
+        weights[j] = arcWeight.applyAsDouble(graph.getArcValue(predecessors.get(j), node));
+      }
+      instructions[i] = new Instruction(node, inputIndex, predecessorSlots, weights);
+    }
+    String[] outputNames = outputs.stream().map(Output::getName).toArray(String[]::new);
+    int[] outputSlots = outputs.stream().mapToInt(slots::get).toArray();
+    int[] ySlots = null;
+    List<String> outputNamesList = List.of(outputNames);
+    if (indexable && outputNamesList.containsAll(yVarNames)) {
+      ySlots = yVarNames.stream()
+          .mapToInt(n -> outputSlots[outputNamesList.indexOf(n)])
+          .toArray();
+    }
+    return new GraphProgram(instructions, xVarNames.size(), outputNames, outputSlots, ySlots);
+  }
+
+  public Map<String, Double> compute(
+      Map<String, Double> input, NodeEvaluator evaluator, DoubleUnaryOperator postOperator) {
+    double[] registers = run(input, null, evaluator);
+    Map<String, Double> output = new HashMap<>(outputNames.length);
+    for (int i = 0; i < outputNames.length; i = i + 1) {
+      output.put(outputNames[i], postOperator.applyAsDouble(registers[outputSlots[i]]));
+    }
+    return output;
+  }
+
+  public double[] compute(double[] xs, NodeEvaluator evaluator, DoubleUnaryOperator postOperator) {
+    if (ySlots == null) {
+      throw new IllegalStateException("Cannot compute by index: some variables are not mapped");
+    }
+    if (xs.length != nOfInputs) {
+      throw new IllegalArgumentException(
+          "Wrong number of inputs: %d expected, %d found".formatted(nOfInputs, xs.length));
+    }
+    double[] registers = run(null, xs, evaluator);
+    double[] ys = new double[ySlots.length];
+    for (int i = 0; i < ys.length; i = i + 1) {
+      ys[i] = postOperator.applyAsDouble(registers[ySlots[i]]);
+    }
+    return ys;
+  }
+
+  public boolean indexable() {
+    return ySlots != null;
+  }
+
+  private double[] run(Map<String, Double> namedInput, double[] input, NodeEvaluator evaluator) {
+    double[] registers = new double[instructions.length];
+    for (int i = 0; i < registers.length; i = i + 1) {
+      Instruction instruction = instructions[i];
+      if (instruction.node() instanceof Input iNode) {
+        registers[i] = (input != null) ? input[instruction.inputIndex()] : namedInput.get(iNode.getName());
+      } else if (instruction.node() instanceof Constant constant) {
+        registers[i] = constant.getValue();
+      } else {
+        registers[i] = evaluator.evaluate(instruction, registers);
+      }
+    }
+    return registers;
+  }
+}
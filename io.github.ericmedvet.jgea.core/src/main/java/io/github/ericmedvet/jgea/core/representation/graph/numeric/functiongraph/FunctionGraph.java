@@ -21,10 +21,11 @@
 package io.github.ericmedvet.jgea.core.representation.graph.numeric.functiongraph;
 
 import io.github.ericmedvet.jgea.core.representation.NamedMultivariateRealFunction;
+import io.github.ericmedvet.jgea.core.representation.graph.AdjacencyListGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.Graph;
-import io.github.ericmedvet.jgea.core.representation.graph.LinkedHashGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.Node;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Constant;
+import io.github.ericmedvet.jgea.core.representation.graph.numeric.GraphProgram;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Input;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Output;
 import io.github.ericmedvet.jgea.core.util.Sized;
@@ -33,7 +34,6 @@ import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -50,6 +50,8 @@ public class FunctionGraph
   private final List<String> yVarNames;
   private final DoubleUnaryOperator postOperator;
   private Graph<Node, Double> graph;
+  // transient, hence rebuilt after deserialization; concurrent rebuilds build equivalent programs
+  private transient volatile GraphProgram program;
 
   public FunctionGraph(
       Graph<Node, Double> graph,
@@ -63,7 +65,7 @@ public class FunctionGraph
   }
 
   public static Graph<Node, Double> sampleFor(List<String> xVarNames, List<String> yVarNames) {
-    Graph<Node, Double> g = new LinkedHashGraph<>();
+    Graph<Node, Double> g = new AdjacencyListGraph<>();
     IntStream.range(0, xVarNames.size()).forEach(i -> g.addNode(new Input(i, xVarNames.get(i))));
     IntStream.range(0, yVarNames.size()).forEach(i -> g.addNode(new Output(i, yVarNames.get(i))));
     return g;
@@ -117,11 +119,16 @@ public class FunctionGraph
 
   @Override
   public Map<String, Double> compute(Map<String, Double> input) {
-    return graph.nodes().stream()
-        .filter(n -> n instanceof Output)
-        .map(n -> (Output) n)
-        .map(n -> Map.entry(n.getName(), postOperator.applyAsDouble(outValue(n, input))))
-        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    return program().compute(input, FunctionGraph::evaluate, postOperator);
+  }
+
+  @Override
+  public double[] compute(double... xs) {
+    GraphProgram program = program();
+    if (!program.indexable()) {
+      return NamedMultivariateRealFunction.super.compute(xs);
+    }
+    return program.compute(xs, FunctionGraph::evaluate, postOperator);
   }
 
   @Override
@@ -143,6 +150,7 @@ public class FunctionGraph
   public void setParams(Graph<Node, Double> graph) {
     check(graph);
     this.graph = graph;
+    program = GraphProgram.compile(graph, xVarNames, yVarNames, w -> w);
   }
 
   @Override
@@ -165,26 +173,30 @@ public class FunctionGraph
         .collect(Collectors.joining(","));
   }
 
-  private double outValue(Node node, Map<String, Double> input) {
-    if (node instanceof Input iNode) {
-      return input.get(iNode.getName());
-    }
-    if (node instanceof Constant constant) {
-      return constant.getValue();
-    }
-    Set<Node> predecessors = graph.predecessors(node);
+  private static double evaluate(GraphProgram.Instruction instruction, double[] registers) {
     double sum = 0d;
-    for (Node predecessor : predecessors) {
-      sum = sum + graph.getArcValue(predecessor, node) * outValue(predecessor, input);
+    int[] predecessorSlots = instruction.predecessorSlots();
+    double[] weights = instruction.weights();
+    for (int j = 0; j < predecessorSlots.length; j = j + 1) {
+      sum = sum + weights[j] * registers[predecessorSlots[j]];
     }
-    if (node instanceof Output) {
-      return sum;
-    }
-    if (node instanceof FunctionNode fNode) {
+    if (instruction.node() instanceof FunctionNode fNode) {
       return fNode.apply(sum);
     }
+    if (instruction.node() instanceof Output) {
+      return sum;
+    }
     throw new RuntimeException(
-        String.format("Unknown type of node: %s", node.getClass().getSimpleName()));
+        String.format("Unknown type of node: %s", instruction.node().getClass().getSimpleName()));
+  }
+
+  private GraphProgram program() {
+    GraphProgram localProgram = program;
+    if (localProgram == null) {
+      localProgram = GraphProgram.compile(graph, xVarNames, yVarNames, w -> w);
+      program = localProgram;
+    }
+    return localProgram;
   }
 
   @Override
@@ -21,17 +21,17 @@
 package io.github.ericmedvet.jgea.core.representation.graph.numeric.operatorgraph;
 
 import io.github.ericmedvet.jgea.core.representation.NamedMultivariateRealFunction;
+import io.github.ericmedvet.jgea.core.representation.graph.AdjacencyListGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.Graph;
-import io.github.ericmedvet.jgea.core.representation.graph.LinkedHashGraph;
 import io.github.ericmedvet.jgea.core.representation.graph.Node;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Constant;
+import io.github.ericmedvet.jgea.core.representation.graph.numeric.GraphProgram;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Input;
 import io.github.ericmedvet.jgea.core.representation.graph.numeric.Output;
 import io.github.ericmedvet.jgea.core.util.Misc;
 import io.github.ericmedvet.jgea.core.util.Sized;
 import io.github.ericmedvet.jnb.datastructure.Parametrized;
 import java.io.Serializable;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -52,6 +52,8 @@ public class OperatorGraph
   private final List<String> yVarNames;
   private final DoubleUnaryOperator postOperator;
   private Graph<Node, NonValuedArc> graph;
+  // transient, hence rebuilt after deserialization; concurrent rebuilds build equivalent programs
+  private transient volatile GraphProgram program;
 
   public OperatorGraph(
       Graph<Node, NonValuedArc> graph,
@@ -65,7 +67,7 @@ public class OperatorGraph
   }
 
   public static Graph<Node, OperatorGraph.NonValuedArc> sampleFor(List<String> xVarNames, List<String> yVarNames) {
-    Graph<Node, OperatorGraph.NonValuedArc> g = new LinkedHashGraph<>();
+    Graph<Node, OperatorGraph.NonValuedArc> g = new AdjacencyListGraph<>();
     IntStream.range(0, xVarNames.size()).forEach(i -> g.addNode(new Input(i, xVarNames.get(i))));
     IntStream.range(0, yVarNames.size()).forEach(i -> g.addNode(new Output(i, yVarNames.get(i))));
     return g;
@@ -156,11 +158,16 @@ public class OperatorGraph
 
   @Override
   public Map<String, Double> compute(Map<String, Double> input) {
-    return graph.nodes().stream()
-        .filter(n -> n instanceof Output)
-        .map(n -> (Output) n)
-        .map(n -> Map.entry(n.getName(), postOperator.applyAsDouble(outValue(n, input))))
-        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    return program().compute(input, OperatorGraph::evaluate, postOperator);
+  }
+
+  @Override
+  public double[] compute(double... xs) {
+    GraphProgram program = program();
+    if (!program.indexable()) {
+      return NamedMultivariateRealFunction.super.compute(xs);
+    }
+    return program.compute(xs, OperatorGraph::evaluate, postOperator);
   }
 
   @Override
@@ -182,6 +189,7 @@ public class OperatorGraph
   public void setParams(Graph<Node, NonValuedArc> graph) {
     check(graph);
     this.graph = graph;
+    program = GraphProgram.compile(graph, xVarNames, yVarNames, a -> 1d);
   }
 
   @Override
@@ -224,25 +232,29 @@ public class OperatorGraph
     return s;
   }
 
-  private double outValue(Node node, Map<String, Double> input) {
-    if (node instanceof Input iNode) {
-      return input.get(iNode.getName());
+  private static double evaluate(GraphProgram.Instruction instruction, double[] registers) {
+    int[] predecessorSlots = instruction.predecessorSlots();
+    if (instruction.node() instanceof Output) {
+      return predecessorSlots.length > 0 ? registers[predecessorSlots[0]] : 0d;
     }
-    if (node instanceof Constant constant) {
-      return constant.getValue();
-    }
-    double[] inValues = graph.predecessors(node).stream()
-        .sorted(Comparator.comparing((Node n) -> n.getClass().getName()).thenComparingInt(Node::getIndex))
-        .mapToDouble(n -> outValue(n, input))
-        .toArray();
-    if (node instanceof Output) {
-      return inValues.length > 0 ? inValues[0] : 0d;
-    }
-    if (node instanceof OperatorNode operatorNode) {
+    if (instruction.node() instanceof OperatorNode operatorNode) {
+      double[] inValues = new double[predecessorSlots.length];
+      for (int j = 0; j < inValues.length; j = j + 1) {
+        inValues[j] = registers[predecessorSlots[j]];
+      }
       return operatorNode.applyAsDouble(inValues);
     }
     throw new RuntimeException(
-        String.format("Unknown type of node: %s", node.getClass().getSimpleName()));
+        String.format("Unknown type of node: %s", instruction.node().getClass().getSimpleName()));
+  }
+
+  private GraphProgram program() {
+    GraphProgram localProgram = program;
+    if (localProgram == null) {
+      localProgram = GraphProgram.compile(graph, xVarNames, yVarNames, a -> 1d);
+      program = localProgram;
+    }
+    return localProgram;
   }
 
   @Override
@@ -95,9 +95,13 @@ public record BitString(boolean[] bits) implements Sized, Serializable, Cloneabl
   }
 
   public int nOfOnes() {
+    return nOfOnes(0, bits.length);
+  }
+
+  public int nOfOnes(int from, int to) {
     int n = 0;
-    for (boolean bit : bits) {
-      n = n + (bit ? 1 : 0);
+    for (int i = from; i < to; i++) {
+      n = n + (bits[i] ? 1 : 0);
     }
     return n;
   }
@@ -112,13 +116,21 @@ public record BitString(boolean[] bits) implements Sized, Serializable, Cloneabl
   }
 
   public int toInt() {
-    BitString bs = this;
     if (bits.length > Integer.SIZE / 2) {
-      bs = bs.compress(Integer.SIZE / 2);
+      return compress(Integer.SIZE / 2).toInt();
+    }
+    return toInt(0, bits.length);
+  }
+
+  public int toInt(int from, int to) {
+    if (to - from > Integer.SIZE / 2) {
+      return slice(from, to).toInt();
     }
     int s = 0;
-    for (int i = 0; i < bs.size(); i = i + 1) {
-      s = s + (int) ((bs.bits[i] ? 1 : 0) * Math.pow(2, i));
+    for (int i = from; i < to; i = i + 1) {
+      if (bits[i]) {
+        s = s | (1 << (i - from));
+      }
     }
     return s;
   }
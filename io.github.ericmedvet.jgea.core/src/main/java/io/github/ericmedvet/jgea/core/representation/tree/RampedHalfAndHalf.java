@@ -24,6 +24,9 @@ import io.github.ericmedvet.jgea.core.Factory;
 import io.github.ericmedvet.jgea.core.IndependentFactory;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 import java.util.function.ToIntFunction;
 import java.util.random.RandomGenerator;
 
@@ -73,4 +76,33 @@ public class RampedHalfAndHalf<N> implements Factory<Tree<N>> {
     }
     return trees;
   }
+
+  @Override
+  public List<Tree<N>> build(int n, RandomGenerator random, ExecutorService executor) {
+    // each tree has its own random generator and starting height on the ramp; a failed attempt moves to the next
+    // height, as in the sequential build
+    List<Callable<Tree<N>>> tasks = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      long seed = random.nextLong();
+      int startingHeight = minHeight + i % (maxHeight - minHeight + 1);
+      boolean full = i < n / 2;
+      tasks.add(() -> {
+        RandomGenerator localRandom = new Random(seed);
+        int height = startingHeight;
+        while (true) {
+          Tree<N> tree = full
+              ? fullTreeFactory.build(localRandom, height)
+              : growTreeBuilder.build(localRandom, height);
+          if (tree != null) {
+            return tree;
+          }
+          height = height + 1;
+          if (height > maxHeight) {
+            height = minHeight;
+          }
+        }
+      });
+    }
+    return Factory.buildAll(tasks, executor);
+  }
 }
@@ -22,7 +22,9 @@ package io.github.ericmedvet.jgea.core.representation.tree;
 
 import io.github.ericmedvet.jgea.core.operator.Crossover;
 import io.github.ericmedvet.jgea.core.util.Misc;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
@@ -37,25 +39,27 @@ public class SameRootSubtreeCrossover<N> implements Crossover<Tree<N>> {
 
   @Override
   public Tree<N> recombine(Tree<N> parent1, Tree<N> parent2, RandomGenerator random) {
-    List<Tree<N>> subtrees1 = parent1.topSubtrees();
+    List<TreeUtils.Positioned<N>> subtrees1 = TreeUtils.positionedSubtrees(parent1);
     List<Tree<N>> subtrees2 = parent2.topSubtrees();
-    Set<N> roots = subtrees1.stream().map(Tree::content).collect(Collectors.toSet());
-    roots.retainAll(subtrees1.stream().map(Tree::content).collect(Collectors.toSet()));
-    subtrees1 = subtrees1.stream()
-        .filter(t -> roots.contains(t.content()))
-        .distinct()
-        .toList();
+    Set<N> roots = subtrees1.stream().map(p -> p.tree().content()).collect(Collectors.toSet());
+    roots.retainAll(subtrees1.stream().map(p -> p.tree().content()).collect(Collectors.toSet()));
+    // keep only the first preorder occurrence of each subtree, since it is the one replaceFirst() replaces
+    Map<Tree<N>, TreeUtils.Positioned<N>> firstOccurrences = new LinkedHashMap<>();
+    subtrees1.stream()
+        .filter(p -> roots.contains(p.tree().content()))
+        .forEach(p -> firstOccurrences.putIfAbsent(p.tree(), p));
+    subtrees1 = List.copyOf(firstOccurrences.values());
     subtrees2 = subtrees2.stream()
         .filter(t -> roots.contains(t.content()))
         .distinct()
         .toList();
     subtrees1 = Misc.shuffle(subtrees1, random);
     subtrees2 = Misc.shuffle(subtrees2, random);
-    for (Tree<N> subtree1 : subtrees1) {
+    for (TreeUtils.Positioned<N> subtree1 : subtrees1) {
       for (Tree<N> subtree2 : subtrees2) {
-        if ((subtree1.content().equals(subtree2.content()))
+        if ((subtree1.tree().content().equals(subtree2.content()))
             && (subtree1.depth() + subtree2.height() <= maxHeight)) {
-          return TreeUtils.replaceFirst(parent1, subtree1, subtree2);
+          return TreeUtils.replaceFirst(parent1, subtree1.tree(), subtree2);
         }
       }
     }
@@ -35,12 +35,12 @@ public class SubtreeCrossover<N> implements Crossover<Tree<N>> {
 
   @Override
   public Tree<N> recombine(Tree<N> parent1, Tree<N> parent2, RandomGenerator random) {
-    List<Tree<N>> subtrees1 = Misc.shuffle(parent1.topSubtrees(), random);
+    List<TreeUtils.Positioned<N>> subtrees1 = Misc.shuffle(TreeUtils.positionedSubtrees(parent1), random);
     List<Tree<N>> subtrees2 = Misc.shuffle(parent2.topSubtrees(), random);
-    for (Tree<N> subtree1 : subtrees1) {
+    for (TreeUtils.Positioned<N> subtree1 : subtrees1) {
       for (Tree<N> subtree2 : subtrees2) {
         if (subtree1.depth() + subtree2.height() <= maxHeight) {
-          return TreeUtils.replaceFirst(parent1, subtree1, subtree2);
+          return TreeUtils.replaceFirst(parent1, subtree1.tree(), subtree2);
         }
       }
     }
@@ -46,17 +46,17 @@ public class SubtreeMutation<N> implements Mutation<Tree<N>> {
     if (parent.height() > maxHeight) {
       return parent;
     }
-    List<Tree<N>> subtrees = parent.topSubtrees();
-    Tree<N> toReplaceSubtree = Misc.pickRandomly(subtrees, random);
+    List<TreeUtils.Positioned<N>> subtrees = TreeUtils.positionedSubtrees(parent);
+    Tree<N> toReplaceSubtree = Misc.pickRandomly(subtrees, random).tree();
     int maxDepth = replaceAll
         ? subtrees.stream()
-            .filter(s -> s.equals(toReplaceSubtree))
-            .mapToInt(Tree::depth)
+            .filter(s -> s.tree().equals(toReplaceSubtree))
+            .mapToInt(TreeUtils.Positioned::depth)
             .max()
             .orElse(0)
         : subtrees.stream()
-            .filter(s -> s.equals(toReplaceSubtree))
-            .mapToInt(Tree::depth)
+            .filter(s -> s.tree().equals(toReplaceSubtree))
+            .mapToInt(TreeUtils.Positioned::depth)
             .findFirst()
             .orElse(0);
     Tree<N> newSubtree = builder.build(random, random.nextInt(maxHeight - maxDepth) + 1);
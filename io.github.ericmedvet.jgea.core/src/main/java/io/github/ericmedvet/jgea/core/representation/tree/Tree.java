@@ -33,12 +33,23 @@ public class Tree<C> implements Serializable, Sized, Iterable<Tree<C>> {
   private final C content;
   private final List<Tree<C>> children = new ArrayList<>();
   private Tree<C> parent;
+  private boolean interned;
+  private int hash;
 
   private Tree(C content, Tree<C> parent) {
     this.content = content;
     this.parent = parent;
   }
 
+  // interned trees are immutable and have no parent, since they may be shared by many trees
+  static <K> Tree<K> interned(K content, List<Tree<K>> internedChildren) {
+    Tree<K> t = new Tree<>(content, null);
+    t.children.addAll(internedChildren);
+    t.hash = Objects.hash(content, t.children);
+    t.interned = true;
+    return t;
+  }
+
   public static <K> Tree<K> copyOf(Tree<K> other) {
     Tree<K> t = new Tree<>(other.content, null);
     for (Tree<K> child : other.children) {
@@ -70,14 +81,30 @@ public class Tree<C> implements Serializable, Sized, Iterable<Tree<C>> {
   private static <K> void prettyPrint(Tree<K> t, int d, PrintStream ps) {
     ps.printf(
         "%s (h=%2d d=%2d #c=%2d) %s",
-        String.join("", Collections.nCopies(d, "  ")), t.height(), t.depth(), t.nChildren(), t.content());
+        String.join("", Collections.nCopies(d, "  ")), t.height(), d, t.nChildren(), t.content());
     ps.println();
     t.forEach(c -> prettyPrint(c, d + 1, ps));
   }
 
   public void addChild(Tree<C> child) {
+    checkNotInterned();
     children.add(child);
-    child.parent = this;
+    if (!child.interned) {
+      child.parent = this;
+    }
+  }
+
+  private void checkNotInterned() {
+    if (interned) {
+      throw new UnsupportedOperationException("Cannot modify an interned tree");
+    }
+  }
+
+  // an interned tree may be a child of many trees, hence it has no parent and no depth
+  private void checkNotShared() {
+    if (interned) {
+      throw new UnsupportedOperationException("Interned trees have no parent");
+    }
   }
 
   public Tree<C> child(int i) {
@@ -89,6 +116,7 @@ public class Tree<C> implements Serializable, Sized, Iterable<Tree<C>> {
   }
 
   public void clearChildren() {
+    checkNotInterned();
     children.clear();
   }
 
@@ -97,6 +125,7 @@ public class Tree<C> implements Serializable, Sized, Iterable<Tree<C>> {
   }
 
   public int depth() {
+    checkNotShared();
     if (parent == null) {
       return 0;
     }
@@ -105,6 +134,9 @@ public class Tree<C> implements Serializable, Sized, Iterable<Tree<C>> {
 
   @Override
   public int hashCode() {
+    if (interned) {
+      return hash;
+    }
     return Objects.hash(content, children);
   }
 
@@ -113,6 +145,17 @@ public class Tree<C> implements Serializable, Sized, Iterable<Tree<C>> {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     Tree<?> tree = (Tree<?>) o;
+    if (interned && tree.interned) {
+      if (hash != tree.hash) return false;
+      // children of interned trees are interned as well, hence they are often the very same instances
+      if (Objects.equals(content, tree.content) && children.size() == tree.children.size()) {
+        boolean sameChildren = true;
+        for (int i = 0; i < children.size() && sameChildren; i = i + 1) {
+          sameChildren = children.get(i) == tree.children.get(i);
+        }
+        if (sameChildren) return true;
+      }
+    }
     return Objects.equals(content, tree.content) && children.equals(tree.children);
   }
 
@@ -128,13 +171,17 @@ public class Tree<C> implements Serializable, Sized, Iterable<Tree<C>> {
     return 1 + children.stream().mapToInt(Tree::height).max().orElse(0);
   }
 
+  public boolean isInterned() {
+    return interned;
+  }
+
   public boolean isLeaf() {
     return children.isEmpty();
   }
 
   @Override
   public Iterator<Tree<C>> iterator() {
-    return children.iterator();
+    return interned ? Collections.unmodifiableList(children).iterator() : children.iterator();
   }
 
   public List<Tree<C>> leaves() {
@@ -151,6 +198,7 @@ public class Tree<C> implements Serializable, Sized, Iterable<Tree<C>> {
   }
 
   public Tree<C> parent() {
+    checkNotShared();
     return parent;
   }
 
@@ -159,6 +207,7 @@ public class Tree<C> implements Serializable, Sized, Iterable<Tree<C>> {
   }
 
   public boolean removeChild(Tree<C> child) {
+    checkNotInterned();
     return children.remove(child);
   }
 
@@ -0,0 +1,109 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.representation.tree;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class TreeInterner<C> {
+
+  private final ConcurrentMap<Key<C>, Key<C>> table;
+  private final ReferenceQueue<Tree<C>> queue;
+
+  public TreeInterner() {
+    table = new ConcurrentHashMap<>();
+    queue = new ReferenceQueue<>();
+  }
+
+  private static class Key<C> extends WeakReference<Tree<C>> {
+    private final int hash;
+
+    private Key(Tree<C> tree, ReferenceQueue<Tree<C>> queue) {
+      super(tree, queue);
+      hash = tree.hashCode();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key<?> other) || hash != other.hash) return false;
+      Tree<C> tree = get();
+      Object otherTree = other.get();
+      return tree != null && tree.equals(otherTree);
+    }
+  }
+
+  public Tree<C> intern(Tree<C> tree) {
+    purge();
+    return internRecursively(tree);
+  }
+
+  private Tree<C> internRecursively(Tree<C> tree) {
+    if (tree.isInterned()) {
+      Tree<C> canonical = lookup(tree);
+      if (canonical != null) {
+        return canonical;
+      }
+    }
+    List<Tree<C>> children = tree.childStream().map(this::internRecursively).toList();
+    return canonicalize(Tree.interned(tree.content(), children));
+  }
+
+  private Tree<C> canonicalize(Tree<C> candidate) {
+    Key<C> key = new Key<>(candidate, queue);
+    while (true) {
+      Key<C> existing = table.putIfAbsent(key, key);
+      if (existing == null) {
+        return candidate;
+      }
+      Tree<C> canonical = existing.get();
+      if (canonical != null) {
+        return canonical;
+      }
+      table.remove(existing, existing);
+    }
+  }
+
+  private Tree<C> lookup(Tree<C> tree) {
+    Key<C> existing = table.get(new Key<>(tree, null));
+    return existing == null ? null : existing.get();
+  }
+
+  private void purge() {
+    Reference<? extends Tree<C>> reference;
+    while ((reference = queue.poll()) != null) {
+      table.remove(reference);
+    }
+  }
+
+  public int size() {
+    purge();
+    return table.size();
+  }
+}
@@ -20,13 +20,29 @@
 
 package io.github.ericmedvet.jgea.core.representation.tree;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class TreeUtils {
 
   private TreeUtils() {}
 
+  public record Positioned<N>(Tree<N> tree, int depth) {}
+
+  private static <N> void positionedSubtrees(Tree<N> t, int depth, List<Positioned<N>> positioned) {
+    positioned.add(new Positioned<>(t, depth));
+    t.forEach(c -> positionedSubtrees(c, depth + 1, positioned));
+  }
+
+  public static <N> List<Positioned<N>> positionedSubtrees(Tree<N> t) {
+    List<Positioned<N>> positioned = new ArrayList<>();
+    positionedSubtrees(t, 0, positioned);
+    return positioned;
+  }
+
   public static <N> Tree<N> replaceAll(Tree<N> t, Tree<N> oldT, Tree<N> newT) {
     if (t.equals(oldT)) {
-      return Tree.copyOf(newT);
+      return newT.isInterned() ? newT : Tree.copyOf(newT);
     }
     Tree<N> rebuilt = Tree.of(t.content());
     t.childStream().map(c -> replaceAll(c, oldT, newT)).forEach(rebuilt::addChild);
@@ -35,7 +51,7 @@ public class TreeUtils {
 
   public static <N> Tree<N> replaceFirst(Tree<N> t, Tree<N> oldT, Tree<N> newT) {
     if (t.equals(oldT)) {
-      return Tree.copyOf(newT);
+      return newT.isInterned() ? newT : Tree.copyOf(newT);
     }
     Tree<N> rebuilt = Tree.of(t.content());
     boolean replaced = false;
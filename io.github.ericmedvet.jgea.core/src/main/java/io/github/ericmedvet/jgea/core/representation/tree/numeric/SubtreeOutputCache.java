@@ -0,0 +1,186 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.representation.tree.numeric;
+
+import io.github.ericmedvet.jgea.core.representation.tree.Tree;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// subtrees are keyed by identity and weakly referenced, hence shared subtrees hit only when trees are interned
+public class SubtreeOutputCache {
+
+  private static final int N_OF_SEGMENTS = 16;
+  // rough size of a key, a weak reference, a map entry, and an array header
+  private static final long ENTRY_OVERHEAD_BYTES = 128;
+
+  private final long maxBytes;
+  private final Segment[] segments;
+  private final ReferenceQueue<Tree<Element>> queue;
+  private final LongAdder hits;
+  private final LongAdder misses;
+
+  public SubtreeOutputCache(long maxBytes) {
+    this.maxBytes = maxBytes;
+    segments = new Segment[N_OF_SEGMENTS];
+    for (int i = 0; i < N_OF_SEGMENTS; i++) {
+      segments[i] = new Segment(maxBytes / N_OF_SEGMENTS);
+    }
+    queue = new ReferenceQueue<>();
+    hits = new LongAdder();
+    misses = new LongAdder();
+  }
+
+  private static class Key extends WeakReference<Tree<Element>> {
+    private final Object datasetKey;
+    private final int hash;
+
+    private Key(Tree<Element> tree, Object datasetKey, ReferenceQueue<Tree<Element>> queue) {
+      super(tree, queue);
+      this.datasetKey = datasetKey;
+      hash = 31 * System.identityHashCode(tree) + System.identityHashCode(datasetKey);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key other) || hash != other.hash || datasetKey != other.datasetKey) return false;
+      Tree<Element> tree = get();
+      return tree != null && tree == other.get();
+    }
+  }
+
+  private static class Segment {
+    private final long maxBytes;
+    private final LinkedHashMap<Key, double[]> outputs;
+    private long bytes;
+
+    private Segment(long maxBytes) {
+      this.maxBytes = maxBytes;
+      outputs = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private synchronized double[] get(Key key) {
+      return outputs.get(key);
+    }
+
+    private synchronized void put(Key key, double[] output) {
+      double[] previous = outputs.put(key, output);
+      if (previous != null) {
+        bytes = bytes - entryBytes(previous);
+      }
+      bytes = bytes + entryBytes(output);
+      Iterator<Map.Entry<Key, double[]>> iterator = outputs.entrySet().iterator();
+      while (bytes > maxBytes && iterator.hasNext()) {
+        bytes = bytes - entryBytes(iterator.next().getValue());
+        iterator.remove();
+      }
+    }
+
+    private synchronized void remove(Key key) {
+      double[] output = outputs.remove(key);
+      if (output != null) {
+        bytes = bytes - entryBytes(output);
+      }
+    }
+
+    private synchronized long bytes() {
+      return bytes;
+    }
+
+    private synchronized int size() {
+      return outputs.size();
+    }
+  }
+
+  private static long entryBytes(double[] output) {
+    return ENTRY_OVERHEAD_BYTES + (long) Double.BYTES * output.length;
+  }
+
+  private Segment segment(Key key) {
+    return segments[Math.floorMod(key.hash ^ (key.hash >>> 16), N_OF_SEGMENTS)];
+  }
+
+  // subtrees of non-interned trees are never shared, hence caching their outputs would only fill the cache
+  public static void checkInterned(Tree<Element> tree) {
+    if (!tree.isInterned()) {
+      throw new IllegalArgumentException(
+          "Cannot use a subtree output cache on a non-interned tree: enable interning in the representation");
+    }
+  }
+
+  public double[] get(Tree<Element> tree, Object datasetKey) {
+    Key key = new Key(tree, datasetKey, null);
+    double[] output = segment(key).get(key);
+    if (output == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return output;
+  }
+
+  public long hits() {
+    return hits.sum();
+  }
+
+  public long misses() {
+    return misses.sum();
+  }
+
+  public void put(Tree<Element> tree, Object datasetKey, double[] output) {
+    purge();
+    if (entryBytes(output) > maxBytes / N_OF_SEGMENTS) {
+      return;
+    }
+    Key key = new Key(tree, datasetKey, queue);
+    segment(key).put(key, output);
+  }
+
+  private void purge() {
+    Reference<? extends Tree<Element>> reference;
+    while ((reference = queue.poll()) != null) {
+      // a cleared key is equal only to itself, hence removal is by the very same instance
+      Key key = (Key) reference;
+      segment(key).remove(key);
+    }
+  }
+
+  @Override
+  public String toString() {
+    long bytes = 0;
+    int size = 0;
+    for (Segment segment : segments) {
+      bytes = bytes + segment.bytes();
+      size = size + segment.size();
+    }
+    return "SubtreeOutputCache{n=%d;bytes=%d/%d;hits=%d;misses=%d}"
+        .formatted(size, bytes, maxBytes, hits.sum(), misses.sum());
+  }
+}
@@ -82,6 +82,19 @@ public class TreeBasedMultivariateRealFunction
         .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
   }
 
+  public double[][] computeColumns(
+      Map<String, double[]> xColumns, int n, SubtreeOutputCache cache, Object datasetKey) {
+    double[][] outputs = new double[trees.size()][n];
+    for (int i = 0; i < trees.size(); i = i + 1) {
+      SubtreeOutputCache.checkInterned(trees.get(i));
+      double[] values = TreeBasedUnivariateRealFunction.compute(trees.get(i), xColumns, n, cache, datasetKey);
+      for (int k = 0; k < n; k++) {
+        outputs[i][k] = postOperator.applyAsDouble(values[k]);
+      }
+    }
+    return outputs;
+  }
+
   @Override
   public List<String> xVarNames() {
     return xVarNames;
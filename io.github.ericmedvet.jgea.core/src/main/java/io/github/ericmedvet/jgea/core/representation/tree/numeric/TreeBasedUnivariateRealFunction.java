@@ -24,6 +24,7 @@ import io.github.ericmedvet.jgea.core.representation.NamedUnivariateRealFunction
 import io.github.ericmedvet.jgea.core.representation.tree.Tree;
 import io.github.ericmedvet.jgea.core.util.Sized;
 import io.github.ericmedvet.jnb.datastructure.Parametrized;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -82,6 +83,46 @@ public class TreeBasedUnivariateRealFunction
     return ((Element.Operator) tree.content()).applyAsDouble(childrenValues);
   }
 
+  protected static double[] compute(
+      Tree<Element> tree, Map<String, double[]> xColumns, int n, SubtreeOutputCache cache, Object datasetKey) {
+    if (tree.content() instanceof Element.Decoration) {
+      throw new RuntimeException(String.format("Cannot compute: decoration node %s found", tree.content()));
+    }
+    if (tree.content() instanceof Element.Variable variable) {
+      double[] varValues = xColumns.get(variable.name());
+      if (varValues == null) {
+        throw new RuntimeException(String.format("Undefined variable: %s", variable.name()));
+      }
+      return varValues;
+    }
+    if (tree.content() instanceof Element.Constant constant) {
+      double[] values = new double[n];
+      Arrays.fill(values, constant.value());
+      return values;
+    }
+    double[] values = cache.get(tree, datasetKey);
+    if (values != null) {
+      return values;
+    }
+    double[][] childrenValues = new double[tree.nChildren()][];
+    int i = 0;
+    for (Tree<Element> child : tree) {
+      childrenValues[i] = compute(child, xColumns, n, cache, datasetKey);
+      i = i + 1;
+    }
+    Element.Operator operator = (Element.Operator) tree.content();
+    values = new double[n];
+    double[] args = new double[childrenValues.length];
+    for (int k = 0; k < n; k++) {
+      for (int j = 0; j < childrenValues.length; j++) {
+        args[j] = childrenValues[j][k];
+      }
+      values[k] = operator.applyAsDouble(args);
+    }
+    cache.put(tree, datasetKey, values);
+    return values;
+  }
+
   public static Function<Tree<Element>, NamedUnivariateRealFunction> mapper(List<String> xVarNames, String yVarName) {
     return t -> new TreeBasedUnivariateRealFunction(t, xVarNames, yVarName);
   }
@@ -91,6 +132,17 @@ public class TreeBasedUnivariateRealFunction
     return postOperator.applyAsDouble(compute(tree, input));
   }
 
+  public double[] computeColumn(
+      Map<String, double[]> xColumns, int n, SubtreeOutputCache cache, Object datasetKey) {
+    SubtreeOutputCache.checkInterned(tree);
+    double[] values = compute(tree, xColumns, n, cache, datasetKey);
+    double[] outputs = new double[n];
+    for (int k = 0; k < n; k++) {
+      outputs[k] = postOperator.applyAsDouble(values[k]);
+    }
+    return outputs;
+  }
+
   @Override
   public String yVarName() {
     return yVarName;
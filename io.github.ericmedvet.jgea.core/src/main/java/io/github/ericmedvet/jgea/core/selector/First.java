@@ -19,8 +19,12 @@
  */
 package io.github.ericmedvet.jgea.core.selector;
 
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
 import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
 import io.github.ericmedvet.jgea.core.util.Misc;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.random.RandomGenerator;
 
 public class First implements Selector<Object> {
@@ -30,6 +34,22 @@ public class First implements Selector<Object> {
     return Misc.pickRandomly(ks.firsts(), random);
   }
 
+  @Override
+  public <K> List<K> removeWorst(
+      Collection<K> ks, PartialComparator<? super K> comparator, int n, RandomGenerator random) {
+    return SelectorUtils.removeExtremes(ks, comparator, false, n, random);
+  }
+
+  @Override
+  public <K> List<K> selectMany(PartiallyOrderedCollection<K> ks, int n, RandomGenerator random) {
+    List<K> firsts = new ArrayList<>(ks.firsts());
+    List<K> selected = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      selected.add(firsts.get(random.nextInt(firsts.size())));
+    }
+    return selected;
+  }
+
   @Override
   public String toString() {
     return "First{" + '}';
@@ -20,8 +20,12 @@
 
 package io.github.ericmedvet.jgea.core.selector;
 
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
 import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
 import io.github.ericmedvet.jgea.core.util.Misc;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.random.RandomGenerator;
 
 public class Last implements Selector<Object> {
@@ -31,6 +35,22 @@ public class Last implements Selector<Object> {
     return Misc.pickRandomly(ks.lasts(), random);
   }
 
+  @Override
+  public <K> List<K> removeWorst(
+      Collection<K> ks, PartialComparator<? super K> comparator, int n, RandomGenerator random) {
+    return SelectorUtils.removeExtremes(ks, comparator, true, n, random);
+  }
+
+  @Override
+  public <K> List<K> selectMany(PartiallyOrderedCollection<K> ks, int n, RandomGenerator random) {
+    List<K> lasts = new ArrayList<>(ks.lasts());
+    List<K> selected = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      selected.add(lasts.get(random.nextInt(lasts.size())));
+    }
+    return selected;
+  }
+
   @Override
   public String toString() {
     return "Last{" + '}';
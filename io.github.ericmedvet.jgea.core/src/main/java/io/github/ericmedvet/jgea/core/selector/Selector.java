@@ -17,14 +17,38 @@
  * limitations under the License.
  * =========================LICENSE_END==================================
  */
-
 package io.github.ericmedvet.jgea.core.selector;
 
+import io.github.ericmedvet.jgea.core.order.DAGPartiallyOrderedCollection;
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
 import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.random.RandomGenerator;
 
 @FunctionalInterface
 public interface Selector<T> {
 
   <K extends T> K select(PartiallyOrderedCollection<K> ks, RandomGenerator random);
+
+  default <K extends T> List<K> removeWorst(
+      Collection<K> ks, PartialComparator<? super K> comparator, int n, RandomGenerator random) {
+    PartiallyOrderedCollection<K> poc = new DAGPartiallyOrderedCollection<>(ks, comparator);
+    List<K> removed = new ArrayList<>(n);
+    while (removed.size() < n && !poc.all().isEmpty()) {
+      K k = select(poc, random);
+      poc.remove(k);
+      removed.add(k);
+    }
+    return removed;
+  }
+
+  default <K extends T> List<K> selectMany(PartiallyOrderedCollection<K> ks, int n, RandomGenerator random) {
+    List<K> selected = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      selected.add(select(ks, random));
+    }
+    return selected;
+  }
 }
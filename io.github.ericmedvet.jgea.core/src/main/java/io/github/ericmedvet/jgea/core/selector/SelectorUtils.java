@@ -0,0 +1,80 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.selector;
+
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+class SelectorUtils {
+
+  private SelectorUtils() {}
+
+  // repeatedly removes a random element among the ones with nothing after (or before, if !lasts) them, updating the
+  // extremes incrementally instead of rebuilding them after each removal
+  static <K> List<K> removeExtremes(
+      Collection<K> ks, PartialComparator<? super K> comparator, boolean lasts, int n, RandomGenerator random) {
+    List<K> list = ks instanceof List<K> l ? l : new ArrayList<>(ks);
+    int size = list.size();
+    int[] nOfBlockers = new int[size];
+    List<List<Integer>> blocked = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      blocked.add(new ArrayList<>());
+    }
+    for (int i = 0; i < size; i++) {
+      for (int j = i + 1; j < size; j++) {
+        PartialComparator.PartialComparatorOutcome outcome = comparator.compare(list.get(i), list.get(j));
+        if (outcome.equals(PartialComparator.PartialComparatorOutcome.BEFORE)) {
+          block(lasts ? i : j, lasts ? j : i, nOfBlockers, blocked);
+        } else if (outcome.equals(PartialComparator.PartialComparatorOutcome.AFTER)) {
+          block(lasts ? j : i, lasts ? i : j, nOfBlockers, blocked);
+        }
+      }
+    }
+    List<Integer> candidates = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      if (nOfBlockers[i] == 0) {
+        candidates.add(i);
+      }
+    }
+    List<K> removed = new ArrayList<>(Math.min(n, size));
+    while (removed.size() < n && !candidates.isEmpty()) {
+      int candidateIndex = random.nextInt(candidates.size());
+      int index = candidates.get(candidateIndex);
+      candidates.set(candidateIndex, candidates.getLast());
+      candidates.removeLast();
+      removed.add(list.get(index));
+      for (int blockedIndex : blocked.get(index)) {
+        nOfBlockers[blockedIndex] = nOfBlockers[blockedIndex] - 1;
+        if (nOfBlockers[blockedIndex] == 0) {
+          candidates.add(blockedIndex);
+        }
+      }
+    }
+    return removed;
+  }
+
+  private static void block(int blockedIndex, int blockerIndex, int[] nOfBlockers, List<List<Integer>> blocked) {
+    nOfBlockers[blockedIndex] = nOfBlockers[blockedIndex] + 1;
+    blocked.get(blockerIndex).add(blockedIndex);
+  }
+}
@@ -20,10 +20,12 @@
 
 package io.github.ericmedvet.jgea.core.selector;
 
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
 import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
 import io.github.ericmedvet.jgea.core.util.Misc;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.random.RandomGenerator;
 
 public class Tournament implements Selector<Object> {
@@ -45,6 +47,42 @@ public class Tournament implements Selector<Object> {
     return Misc.pickRandomly(poc.firsts(), random);
   }
 
+  @Override
+  public <K> List<K> removeWorst(
+      Collection<K> ks, PartialComparator<? super K> comparator, int n, RandomGenerator random) {
+    List<K> remaining = new ArrayList<>(ks);
+    PartialComparator<Integer> indexComparator =
+        (i1, i2) -> comparator.compare(remaining.get(i1), remaining.get(i2));
+    List<K> removed = new ArrayList<>(Math.min(n, remaining.size()));
+    while (removed.size() < n && !remaining.isEmpty()) {
+      int index = selectIndex(remaining.size(), indexComparator, random);
+      removed.add(remaining.get(index));
+      remaining.set(index, remaining.getLast());
+      remaining.removeLast();
+    }
+    return removed;
+  }
+
+  @Override
+  public <K> List<K> selectMany(PartiallyOrderedCollection<K> ks, int n, RandomGenerator random) {
+    List<K> all = new ArrayList<>(ks.all());
+    PartialComparator<? super K> comparator = ks.comparator();
+    PartialComparator<Integer> indexComparator = (i1, i2) -> comparator.compare(all.get(i1), all.get(i2));
+    List<K> selected = new ArrayList<>(n);
+    for (int i = 0; i < n; i++) {
+      selected.add(all.get(selectIndex(all.size(), indexComparator, random)));
+    }
+    return selected;
+  }
+
+  private int selectIndex(int n, PartialComparator<Integer> indexComparator, RandomGenerator random) {
+    List<Integer> tournament = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      tournament.add(random.nextInt(n));
+    }
+    return Misc.pickRandomly(PartiallyOrderedCollection.from(tournament, indexComparator).firsts(), random);
+  }
+
   @Override
   public String toString() {
     return "Tournament{" + "size=" + size + '}';
@@ -20,14 +20,19 @@
 package io.github.ericmedvet.jgea.core.solver;
 
 import io.github.ericmedvet.jgea.core.Factory;
+import io.github.ericmedvet.jgea.core.IndependentFactory;
 import io.github.ericmedvet.jgea.core.operator.GeneticOperator;
-import io.github.ericmedvet.jgea.core.order.DAGPartiallyOrderedCollection;
-import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
 import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
 import io.github.ericmedvet.jgea.core.selector.Selector;
 import io.github.ericmedvet.jgea.core.util.Misc;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -51,6 +56,8 @@ public abstract class AbstractStandardEvolver<
   protected final int offspringSize;
   protected final boolean overlapping;
   protected final int maxUniquenessAttempts;
+  protected final boolean streaming;
+  protected final UniquenessFilter<G> uniquenessFilter;
 
   public AbstractStandardEvolver(
       Function<? super G, ? extends S> solutionMapper,
@@ -64,6 +71,36 @@ public abstract class AbstractStandardEvolver<
       boolean overlapping,
       int maxUniquenessAttempts,
       boolean remap) {
+    this(
+        solutionMapper,
+        genotypeFactory,
+        populationSize,
+        stopCondition,
+        operators,
+        parentSelector,
+        unsurvivalSelector,
+        offspringSize,
+        overlapping,
+        maxUniquenessAttempts,
+        remap,
+        false,
+        new UniquenessFilter<>());
+  }
+
+  public AbstractStandardEvolver(
+      Function<? super G, ? extends S> solutionMapper,
+      Factory<? extends G> genotypeFactory,
+      int populationSize,
+      Predicate<? super T> stopCondition,
+      Map<GeneticOperator<G>, Double> operators,
+      Selector<? super I> parentSelector,
+      Selector<? super I> unsurvivalSelector,
+      int offspringSize,
+      boolean overlapping,
+      int maxUniquenessAttempts,
+      boolean remap,
+      boolean streaming,
+      UniquenessFilter<G> uniquenessFilter) {
     super(solutionMapper, genotypeFactory, stopCondition, remap);
     this.operators = operators;
     this.parentSelector = parentSelector;
@@ -72,6 +109,8 @@ public abstract class AbstractStandardEvolver<
     this.offspringSize = offspringSize;
     this.overlapping = overlapping;
     this.maxUniquenessAttempts = maxUniquenessAttempts;
+    this.streaming = streaming;
+    this.uniquenessFilter = uniquenessFilter;
   }
 
   protected abstract T init(P problem);
@@ -82,15 +121,25 @@ public abstract class AbstractStandardEvolver<
 
   protected abstract T update(T state, Collection<I> individuals, long nOfNewBirths, long nOfNewFitnessEvaluations);
 
-  protected Collection<ChildGenotype<G>> buildOffspringToMapGenotypes(T state, RandomGenerator random) {
+  // states not able to keep the uniqueness memory ignore it: fingerprints are then recomputed at each update
+  protected T updatedWithUniquenessMemory(T state, UniquenessFilter.Memory uniquenessMemory) {
+    return state;
+  }
+
+  private UniquenessFilter.Seen<G> seen(T state) {
+    return maxUniquenessAttempts > 0
+        ? uniquenessFilter.seen(state.pocPopulation().all(), state.uniquenessMemory())
+        : null;
+  }
+
+  private T updatedWithUniquenessMemory(T state, UniquenessFilter.Seen<G> seen) {
+    return seen == null ? state : updatedWithUniquenessMemory(state, seen.memory(state.pocPopulation().all()));
+  }
+
+  protected Collection<ChildGenotype<G>> buildOffspringToMapGenotypes(
+      T state, RandomGenerator random, UniquenessFilter.Seen<G> seen) {
     AtomicLong counter = new AtomicLong(state.nOfBirths());
     Collection<ChildGenotype<G>> offspringChildGenotypes = new ArrayList<>();
-    Set<G> uniqueOffspringGenotypes = new HashSet<>();
-    if (maxUniquenessAttempts > 0) {
-      uniqueOffspringGenotypes.addAll(state.pocPopulation().all().stream()
-          .map(Individual::genotype)
-          .toList());
-    }
     int attempts = 0;
     while (offspringChildGenotypes.size() < offspringSize) {
       GeneticOperator<G> operator = Misc.pickRandomly(operators, random);
@@ -101,14 +150,18 @@ public abstract class AbstractStandardEvolver<
       }
       List<? extends G> childGenotypes =
           operator.apply(parents.stream().map(Individual::genotype).toList(), random);
-      if (attempts >= maxUniquenessAttempts
-          || childGenotypes.stream().noneMatch(uniqueOffspringGenotypes::contains)) {
+      List<UniquenessFilter.Fingerprint> fingerprints =
+          seen == null ? null : seen.tryAdd(childGenotypes, attempts >= maxUniquenessAttempts);
+      if (seen == null || fingerprints != null) {
         attempts = 0;
         List<Long> parentIds = parents.stream().map(Individual::id).toList();
-        childGenotypes.stream()
-            .map(g -> new ChildGenotype<G>(counter.getAndIncrement(), g, parentIds))
-            .forEach(offspringChildGenotypes::add);
-        uniqueOffspringGenotypes.addAll(childGenotypes);
+        for (int i = 0; i < childGenotypes.size(); i = i + 1) {
+          long id = counter.getAndIncrement();
+          if (fingerprints != null) {
+            seen.born(id, fingerprints.get(i));
+          }
+          offspringChildGenotypes.add(new ChildGenotype<>(id, childGenotypes.get(i), parentIds));
+        }
       } else {
         attempts = attempts + 1;
       }
@@ -116,12 +169,110 @@ public abstract class AbstractStandardEvolver<
     return offspringChildGenotypes;
   }
 
+  protected List<I> buildAndMapOffspring(
+      T state,
+      RandomGenerator random,
+      AtomicLong counter,
+      AtomicInteger remainingBirths,
+      UniquenessFilter.Seen<G> seen) {
+    int attempts = 0;
+    while (true) {
+      GeneticOperator<G> operator = Misc.pickRandomly(operators, random);
+      List<I> parents = new ArrayList<>(operator.arity());
+      for (int j = 0; j < operator.arity(); j++) {
+        parents.add(parentSelector.select(state.pocPopulation(), random));
+      }
+      List<? extends G> childGenotypes =
+          operator.apply(parents.stream().map(Individual::genotype).toList(), random);
+      List<UniquenessFilter.Fingerprint> fingerprints =
+          seen == null ? null : seen.tryAdd(childGenotypes, attempts >= maxUniquenessAttempts);
+      if (seen == null || fingerprints != null) {
+        // births are claimed only once the children are accepted, so that no more than the needed ones are mapped
+        if (remainingBirths.getAndAdd(-childGenotypes.size()) <= 0) {
+          return List.of();
+        }
+        List<Long> parentIds = parents.stream().map(Individual::id).toList();
+        List<I> children = new ArrayList<>(childGenotypes.size());
+        for (int i = 0; i < childGenotypes.size(); i = i + 1) {
+          long id = counter.getAndIncrement();
+          if (fingerprints != null) {
+            seen.born(id, fingerprints.get(i));
+          }
+          children.add(mapChildGenotype(new ChildGenotype<>(id, childGenotypes.get(i), parentIds), state, random));
+        }
+        return children;
+      }
+      attempts = attempts + 1;
+    }
+  }
+
+  protected Collection<I> streamOffspring(
+      T state, RandomGenerator random, ExecutorService executor, UniquenessFilter.Seen<G> seen)
+      throws SolverException {
+    AtomicLong counter = new AtomicLong(state.nOfBirths());
+    AtomicInteger remainingBirths = new AtomicInteger(offspringSize);
+    CompletionService<List<I>> completionService = new ExecutorCompletionService<>(executor);
+    List<I> offspring = new ArrayList<>(offspringSize);
+    List<Future<List<I>>> futures = new ArrayList<>();
+    int nOfPendingTasks = 0;
+    try {
+      while (remainingBirths.get() > 0 || nOfPendingTasks > 0) {
+        while (nOfPendingTasks < remainingBirths.get()) {
+          RandomGenerator taskRandom = new Random(random.nextLong());
+          futures.add(completionService.submit(() -> buildAndMapOffspring(
+              state, taskRandom, counter, remainingBirths, seen)));
+          nOfPendingTasks = nOfPendingTasks + 1;
+        }
+        offspring.addAll(completionService.take().get());
+        nOfPendingTasks = nOfPendingTasks - 1;
+      }
+    } catch (InterruptedException | ExecutionException e) {
+      throw new SolverException(e);
+    } finally {
+      // no-op for the completed tasks; on failure, the other tasks would otherwise keep building and mapping
+      futures.forEach(f -> f.cancel(true));
+    }
+    return offspring;
+  }
+
+  protected T streamingUpdate(RandomGenerator random, ExecutorService executor, T state) throws SolverException {
+    Collection<Future<I>> remappedFutures = remap
+        ? remap(state.pocPopulation().all(), this::remapIndividual, state, random, executor)
+        : List.of();
+    UniquenessFilter.Seen<G> seen = seen(state);
+    Collection<I> offspring = streamOffspring(state, random, executor, seen);
+    int nOfNewBirths = offspring.size();
+    L.fine(String.format("Offspring built and mapped: %d individuals", nOfNewBirths));
+    Collection<I> newPopulation = new ArrayList<>(offspring);
+    newPopulation.addAll(remap ? getAll(remappedFutures) : state.pocPopulation().all());
+    newPopulation = trimPopulation(newPopulation, state, random);
+    L.fine(String.format("Offspring trimmed: %d individuals", newPopulation.size()));
+    return updatedWithUniquenessMemory(
+        update(state, newPopulation, nOfNewBirths, nOfNewBirths + (remap ? state.pocPopulation().size() : 0)),
+        seen);
+  }
+
   @Override
   public T init(P problem, RandomGenerator random, ExecutorService executor) throws SolverException {
     T newState = init(problem);
     AtomicLong counter = new AtomicLong(0);
-    List<? extends G> genotypes = genotypeFactory.build(populationSize, random);
-    return update(
+    if (genotypeFactory instanceof IndependentFactory<? extends G> independentFactory) {
+      // build and map each genotype in the same task, with its own random generator for building
+      List<Callable<I>> callables = new ArrayList<>(populationSize);
+      for (int i = 0; i < populationSize; i++) {
+        long seed = random.nextLong();
+        long id = counter.getAndIncrement();
+        callables.add(() -> mapChildGenotype(
+            new ChildGenotype<>(id, independentFactory.build(new Random(seed)), List.of()),
+            newState,
+            random));
+      }
+      Collection<I> individuals = getAll(callables, executor);
+      return updatedWithInitialUniquenessMemory(
+          update(newState, individuals, individuals.size(), individuals.size()));
+    }
+    List<? extends G> genotypes = genotypeFactory.build(populationSize, random, executor);
+    return updatedWithInitialUniquenessMemory(update(
         newState,
         getAll(map(
             genotypes.stream()
@@ -132,12 +283,22 @@ public abstract class AbstractStandardEvolver<
             random,
             executor)),
         genotypes.size(),
-        genotypes.size());
+        genotypes.size()));
+  }
+
+  private T updatedWithInitialUniquenessMemory(T state) {
+    return maxUniquenessAttempts > 0
+        ? updatedWithUniquenessMemory(state, uniquenessFilter.memory(state.pocPopulation().all()))
+        : state;
   }
 
   @Override
   public T update(RandomGenerator random, ExecutorService executor, T state) throws SolverException {
-    Collection<ChildGenotype<G>> offspringChildGenotypes = buildOffspringToMapGenotypes(state, random);
+    if (streaming) {
+      return streamingUpdate(random, executor, state);
+    }
+    UniquenessFilter.Seen<G> seen = seen(state);
+    Collection<ChildGenotype<G>> offspringChildGenotypes = buildOffspringToMapGenotypes(state, random, seen);
     int nOfNewBirths = offspringChildGenotypes.size();
     L.fine(String.format("Offspring built: %d genotypes", nOfNewBirths));
     Collection<I> newPopulation = mapAll(
@@ -151,20 +312,18 @@ public abstract class AbstractStandardEvolver<
     L.fine(String.format("Offspring merged with parents: %d individuals", newPopulation.size()));
     newPopulation = trimPopulation(newPopulation, state, random);
     L.fine(String.format("Offspring trimmed: %d individuals", newPopulation.size()));
-    return update(
-        state,
-        newPopulation,
-        nOfNewBirths,
-        nOfNewBirths + (remap ? state.pocPopulation().size() : 0));
+    return updatedWithUniquenessMemory(
+        update(state, newPopulation, nOfNewBirths, nOfNewBirths + (remap ? state.pocPopulation().size() : 0)),
+        seen);
   }
 
   protected Collection<I> trimPopulation(Collection<I> population, T state, RandomGenerator random) {
-    PartiallyOrderedCollection<I> orderedPopulation =
-        new DAGPartiallyOrderedCollection<>(population, partialComparator(state.problem()));
-    while (orderedPopulation.size() > populationSize) {
-      I toRemoveIndividual = unsurvivalSelector.select(orderedPopulation, random);
-      orderedPopulation.remove(toRemoveIndividual);
+    if (population.size() <= populationSize) {
+      return population;
     }
-    return orderedPopulation.all();
+    Set<I> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+    removed.addAll(unsurvivalSelector.removeWorst(
+        population, partialComparator(state.problem()), population.size() - populationSize, random));
+    return population.stream().filter(i -> !removed.contains(i)).toList();
   }
 }
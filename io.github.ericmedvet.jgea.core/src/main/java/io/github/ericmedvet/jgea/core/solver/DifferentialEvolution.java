@@ -122,7 +122,8 @@ public class DifferentialEvolution<S, Q>
   protected Collection<ChildGenotype<List<Double>>> buildOffspringToMapGenotypes(
       ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
           state,
-      RandomGenerator random) {
+      RandomGenerator random,
+      UniquenessFilter.Seen<List<Double>> seen) {
     AtomicLong counter = new AtomicLong(state.nOfBirths());
     return IntStream.range(0, state.listPopulation().size())
         .mapToObj(i -> {
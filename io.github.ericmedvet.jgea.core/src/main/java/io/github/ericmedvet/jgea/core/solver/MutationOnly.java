@@ -61,7 +61,9 @@ public class MutationOnly<G, S, Q> extends StandardEvolver<G, S, Q> {
 
   @Override
   protected Collection<ChildGenotype<G>> buildOffspringToMapGenotypes(
-      POCPopulationState<Individual<G, S, Q>, G, S, Q, QualityBasedProblem<S, Q>> state, RandomGenerator random) {
+      POCPopulationState<Individual<G, S, Q>, G, S, Q, QualityBasedProblem<S, Q>> state,
+      RandomGenerator random,
+      UniquenessFilter.Seen<G> seen) {
     AtomicLong counter = new AtomicLong(state.nOfBirths());
     return state.pocPopulation().all().stream()
         .map(i -> new ChildGenotype<>(
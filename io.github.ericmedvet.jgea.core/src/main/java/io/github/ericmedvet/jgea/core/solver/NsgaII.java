@@ -28,6 +28,7 @@ import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
 import java.util.function.Predicate;
 import java.util.random.RandomGenerator;
 import java.util.stream.IntStream;
@@ -51,6 +52,7 @@ public class NsgaII<G, S>
   protected final Map<GeneticOperator<G>, Double> operators;
   private final int populationSize;
   private final int maxUniquenessAttempts;
+  private final UniquenessFilter<G> uniquenessFilter;
 
   public NsgaII(
       Function<? super G, ? extends S> solutionMapper,
@@ -68,97 +70,201 @@ public class NsgaII<G, S>
       Map<GeneticOperator<G>, Double> operators,
       int maxUniquenessAttempts,
       boolean remap) {
+    this(
+        solutionMapper,
+        genotypeFactory,
+        populationSize,
+        stopCondition,
+        operators,
+        maxUniquenessAttempts,
+        remap,
+        new UniquenessFilter<>());
+  }
+
+  public NsgaII(
+      Function<? super G, ? extends S> solutionMapper,
+      Factory<? extends G> genotypeFactory,
+      int populationSize,
+      Predicate<
+              ? super
+                  POCPopulationState<
+                      Individual<G, S, List<Double>>,
+                      G,
+                      S,
+                      List<Double>,
+                      MultiHomogeneousObjectiveProblem<S, Double>>>
+          stopCondition,
+      Map<GeneticOperator<G>, Double> operators,
+      int maxUniquenessAttempts,
+      boolean remap,
+      UniquenessFilter<G> uniquenessFilter) {
     super(solutionMapper, genotypeFactory, stopCondition, remap);
     this.operators = operators;
     this.populationSize = populationSize;
     this.maxUniquenessAttempts = maxUniquenessAttempts;
+    this.uniquenessFilter = uniquenessFilter;
   }
 
-  private record RankedIndividual<G, S>(
-      long id,
-      G genotype,
-      S solution,
-      List<Double> quality,
-      long qualityMappingIteration,
-      long genotypeBirthIteration,
-      int rank,
-      double crowdingDistance,
-      Collection<Long> parentIds)
-      implements Individual<G, S, List<Double>> {
-    static <G, S> RankedIndividual<G, S> from(Individual<G, S, List<Double>> individual) {
-      return new RankedIndividual<>(
-          individual.id(),
-          individual.genotype(),
-          individual.solution(),
-          individual.quality(),
-          individual.qualityMappingIteration(),
-          individual.genotypeBirthIteration(),
-          0,
-          0,
-          individual.parentIds());
+  private record Ranking(List<int[]> fronts, double[] crowdingDistances, int[][] dominatedIndexes) {}
+
+  private static int[] append(int[] values, int size, int value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, Math.max(4, values.length * 2));
     }
+    values[size] = value;
+    return values;
   }
 
-  private static <G, S> Comparator<RankedIndividual<G, S>> rankedComparator() {
-    return Comparator.comparingInt((RankedIndividual<G, S> i) -> i.rank)
-        .thenComparing((i1, i2) -> Double.compare(i2.crowdingDistance, i1.crowdingDistance));
+  // stable bottom-up merge sort of indexes, so that they are never boxed
+  private static void sortIndexes(int[] indexes, IntBinaryOperator comparator) {
+    int n = indexes.length;
+    int[] source = indexes;
+    int[] target = new int[n];
+    for (int width = 1; width < n; width = 2 * width) {
+      for (int low = 0; low < n; low = low + 2 * width) {
+        int middle = Math.min(low + width, n);
+        int high = Math.min(low + 2 * width, n);
+        int i = low;
+        int j = middle;
+        for (int k = low; k < high; k = k + 1) {
+          if (j >= high || (i < middle && comparator.applyAsInt(source[i], source[j]) <= 0)) {
+            target[k] = source[i];
+            i = i + 1;
+          } else {
+            target[k] = source[j];
+            j = j + 1;
+          }
+        }
+      }
+      int[] swap = source;
+      source = target;
+      target = swap;
+    }
+    if (source != indexes) {
+      System.arraycopy(source, 0, indexes, 0, n);
+    }
   }
 
-  private static <G, S> List<Double> distances(
-      List<? extends Individual<G, S, List<Double>>> individuals, List<Comparator<Double>> comparators) {
-    double[] dists = new double[individuals.size()];
-    for (int oI = 0; oI < comparators.size(); oI = oI + 1) {
-      int finalOI = oI;
-      List<Integer> indexes = IntStream.range(0, individuals.size())
-          .boxed()
-          .sorted((ii1, ii2) -> comparators
-              .get(finalOI)
-              .compare(
-                  individuals.get(ii1).quality().get(finalOI),
-                  individuals.get(ii2).quality().get(finalOI)))
-          .toList();
-      for (int ii = 1; ii < indexes.size() - 1; ii = ii + 1) {
-        int previousIndex = indexes.get(ii - 1);
-        int nextIndex = indexes.get(ii + 1);
-        double dist = Math.abs(individuals.get(previousIndex).quality().get(finalOI)
-            - individuals.get(nextIndex).quality().get(finalOI));
-        dists[indexes.get(ii)] = dists[indexes.get(ii)] + dist;
+  private static Ranking rank(
+      List<? extends Individual<?, ?, List<Double>>> individuals, List<Comparator<Double>> comparators) {
+    int n = individuals.size();
+    int nOfObjectives = comparators.size();
+    double[][] qualities = new double[nOfObjectives][n];
+    // the already boxed values, for the comparators
+    Double[][] boxedQualities = new Double[nOfObjectives][n];
+    for (int i = 0; i < n; i = i + 1) {
+      List<Double> quality = individuals.get(i).quality();
+      for (int oI = 0; oI < nOfObjectives; oI = oI + 1) {
+        boxedQualities[oI][i] = quality.get(oI);
+        qualities[oI][i] = boxedQualities[oI][i];
+      }
+    }
+    // replace each objective value with its ordinal, so that dominance is checked on ints regardless of the comparator
+    int[][] ordinals = new int[nOfObjectives][n];
+    for (int oI = 0; oI < nOfObjectives; oI = oI + 1) {
+      Double[] objectiveQualities = boxedQualities[oI];
+      Comparator<Double> comparator = comparators.get(oI);
+      int[] indexes = IntStream.range(0, n).toArray();
+      sortIndexes(indexes, (i1, i2) -> comparator.compare(objectiveQualities[i1], objectiveQualities[i2]));
+      for (int i = 1; i < n; i = i + 1) {
+        ordinals[oI][indexes[i]] = ordinals[oI][indexes[i - 1]]
+            + (comparator.compare(objectiveQualities[indexes[i - 1]], objectiveQualities[indexes[i]]) == 0
+                ? 0
+                : 1);
+      }
+    }
+    // fast non-dominated sorting
+    int[][] dominatedIndexes = new int[n][0];
+    int[] nOfDominated = new int[n];
+    int[] nOfDominating = new int[n];
+    for (int i = 0; i < n; i = i + 1) {
+      for (int j = i + 1; j < n; j = j + 1) {
+        boolean iBetter = false;
+        boolean jBetter = false;
+        for (int oI = 0; oI < nOfObjectives && !(iBetter && jBetter); oI = oI + 1) {
+          iBetter = iBetter || ordinals[oI][i] < ordinals[oI][j];
+          jBetter = jBetter || ordinals[oI][j] < ordinals[oI][i];
+        }
+        if (iBetter && !jBetter) {
+          dominatedIndexes[i] = append(dominatedIndexes[i], nOfDominated[i], j);
+          nOfDominated[i] = nOfDominated[i] + 1;
+          nOfDominating[j] = nOfDominating[j] + 1;
+        } else if (jBetter && !iBetter) {
+          dominatedIndexes[j] = append(dominatedIndexes[j], nOfDominated[j], i);
+          nOfDominated[j] = nOfDominated[j] + 1;
+          nOfDominating[i] = nOfDominating[i] + 1;
+        }
+      }
+    }
+    for (int i = 0; i < n; i = i + 1) {
+      dominatedIndexes[i] = Arrays.copyOf(dominatedIndexes[i], nOfDominated[i]);
+    }
+    List<int[]> fronts = new ArrayList<>();
+    int[] front = IntStream.range(0, n).filter(i -> nOfDominating[i] == 0).toArray();
+    while (front.length > 0) {
+      fronts.add(front);
+      int[] nextFront = new int[0];
+      int nextFrontSize = 0;
+      for (int i : front) {
+        for (int j : dominatedIndexes[i]) {
+          nOfDominating[j] = nOfDominating[j] - 1;
+          if (nOfDominating[j] == 0) {
+            nextFront = append(nextFront, nextFrontSize, j);
+            nextFrontSize = nextFrontSize + 1;
+          }
+        }
+      }
+      front = Arrays.copyOf(nextFront, nextFrontSize);
+    }
+    // crowding distances, sorting fronts by (ordinal, position) packed in longs
+    double[] crowdingDistances = new double[n];
+    for (int[] f : fronts) {
+      for (int oI = 0; oI < nOfObjectives; oI = oI + 1) {
+        long[] keys = new long[f.length];
+        for (int k = 0; k < f.length; k = k + 1) {
+          keys[k] = ((long) ordinals[oI][f[k]] << 32) | k;
+        }
+        Arrays.sort(keys);
+        for (int k = 1; k < keys.length - 1; k = k + 1) {
+          int previousIndex = f[(int) keys[k - 1]];
+          int nextIndex = f[(int) keys[k + 1]];
+          crowdingDistances[f[(int) keys[k]]] = crowdingDistances[f[(int) keys[k]]]
+              + Math.abs(qualities[oI][previousIndex] - qualities[oI][nextIndex]);
+        }
+        crowdingDistances[f[(int) keys[0]]] = Double.POSITIVE_INFINITY;
+        crowdingDistances[f[(int) keys[keys.length - 1]]] = Double.POSITIVE_INFINITY;
       }
-      dists[indexes.getFirst()] = dists[indexes.getFirst()] + Double.POSITIVE_INFINITY;
-      dists[indexes.getLast()] = dists[indexes.getLast()] + Double.POSITIVE_INFINITY;
     }
-    return Arrays.stream(dists).boxed().toList();
+    return new Ranking(fronts, crowdingDistances, dominatedIndexes);
   }
 
-  private static <G, S> Collection<RankedIndividual<G, S>> decorate(
-      Collection<? extends Individual<G, S, List<Double>>> individuals,
-      MultiHomogeneousObjectiveProblem<S, Double> problem) {
-    List<? extends Collection<? extends Individual<G, S, List<Double>>>> fronts = PartiallyOrderedCollection.from(
-            individuals, partialComparator(problem))
-        .fronts();
-    return IntStream.range(0, fronts.size())
-        .mapToObj(fi -> {
-          List<? extends Individual<G, S, List<Double>>> is =
-              fronts.get(fi).stream().toList();
-          List<Double> distances = distances(is, problem.comparators());
-          return IntStream.range(0, is.size())
-              .mapToObj(ii -> {
-                Individual<G, S, List<Double>> individual = is.get(ii);
-                return new RankedIndividual<>(
-                    individual.id(),
-                    individual.genotype(),
-                    individual.solution(),
-                    individual.quality(),
-                    individual.qualityMappingIteration(),
-                    individual.genotypeBirthIteration(),
-                    fi,
-                    distances.get(ii),
-                    individual.parentIds());
-              })
-              .toList();
-        })
-        .flatMap(List::stream)
+  private static <I extends Individual<?, ?, List<Double>>> PartiallyOrderedCollection<I> rankedPoc(
+      List<I> individuals,
+      Ranking ranking,
+      int[] keptIndexes,
+      MultiHomogeneousObjectiveProblem<?, Double> problem) {
+    boolean[] kept = new boolean[individuals.size()];
+    for (int i : keptIndexes) {
+      kept[i] = true;
+    }
+    // ranks are still valid for the kept individuals, since fronts are kept in order
+    List<Collection<I>> fronts = ranking.fronts().stream()
+        .map(f -> Arrays.stream(f)
+            .filter(i -> kept[i])
+            .mapToObj(individuals::get)
+            .toList())
+        .filter(f -> !f.isEmpty())
+        .map(f -> (Collection<I>) f)
+        .toList();
+    List<I> lasts = Arrays.stream(keptIndexes)
+        .filter(i -> Arrays.stream(ranking.dominatedIndexes()[i]).noneMatch(j -> kept[j]))
+        .mapToObj(individuals::get)
         .toList();
+    return PartiallyOrderedCollection.from(
+        Arrays.stream(keptIndexes).mapToObj(individuals::get).toList(),
+        fronts,
+        lasts,
+        partialComparator(problem));
   }
 
   @Override
@@ -170,20 +276,26 @@ public class NsgaII<G, S>
             Individual<G, S, List<Double>>, G, S, List<Double>, MultiHomogeneousObjectiveProblem<S, Double>>
         newState = POCPopulationState.empty(problem, stopCondition());
     AtomicLong counter = new AtomicLong(0);
-    List<? extends G> genotypes = genotypeFactory.build(populationSize, random);
-    Collection<Individual<G, S, List<Double>>> individuals = getAll(map(
+    List<? extends G> genotypes = genotypeFactory.build(populationSize, random, executor);
+    List<Individual<G, S, List<Double>>> individuals = List.copyOf(getAll(map(
         genotypes.stream()
             .map(g -> new ChildGenotype<G>(counter.getAndIncrement(), g, List.of()))
             .toList(),
-        (cg, s, r) -> RankedIndividual.from(
-            Individual.from(cg, solutionMapper, s.problem().qualityFunction(), s.nOfIterations())),
+        (cg, s, r) -> Individual.from(cg, solutionMapper, s.problem().qualityFunction(), s.nOfIterations()),
         newState,
         random,
-        executor));
-    return newState.updatedWithIteration(
+        executor)));
+    newState = newState.updatedWithIteration(
         genotypes.size(),
         genotypes.size(),
-        PartiallyOrderedCollection.from(individuals, partialComparator(problem)));
+        rankedPoc(
+            individuals,
+            rank(individuals, problem.comparators()),
+            IntStream.range(0, individuals.size()).toArray(),
+            problem));
+    return maxUniquenessAttempts > 0
+        ? newState.updatedWithUniquenessMemory(uniquenessFilter.memory(newState.pocPopulation().all()))
+        : newState;
   }
 
   @Override
@@ -202,12 +314,10 @@ public class NsgaII<G, S>
           throws SolverException {
     // build offspring
     Collection<ChildGenotype<G>> offspringChildGenotypes = new ArrayList<>();
-    Set<G> uniqueOffspringGenotypes = new HashSet<>();
-    if (maxUniquenessAttempts > 0) {
-      uniqueOffspringGenotypes.addAll(state.pocPopulation().all().stream()
-          .map(Individual::genotype)
-          .toList());
-    }
+    UniquenessFilter.Seen<G> seen =
+        maxUniquenessAttempts > 0
+            ? uniquenessFilter.seen(state.pocPopulation().all(), state.uniquenessMemory())
+            : null;
     int attempts = 0;
     List<Individual<G, S, List<Double>>> individuals =
         state.pocPopulation().all().stream().toList();
@@ -220,36 +330,53 @@ public class NsgaII<G, S>
           .toList();
       List<? extends G> newGenotypes =
           operator.apply(parents.stream().map(Individual::genotype).toList(), random);
-      if (attempts >= maxUniquenessAttempts
-          || newGenotypes.stream().noneMatch(uniqueOffspringGenotypes::contains)) {
+      List<UniquenessFilter.Fingerprint> fingerprints =
+          seen == null ? null : seen.tryAdd(newGenotypes, attempts >= maxUniquenessAttempts);
+      if (seen == null || fingerprints != null) {
         attempts = 0;
         List<Long> parentIds = parents.stream().map(Individual::id).toList();
-        newGenotypes.forEach(
-            g -> offspringChildGenotypes.add(new ChildGenotype<>(counter.getAndIncrement(), g, parentIds)));
-        uniqueOffspringGenotypes.addAll(newGenotypes);
+        for (int i = 0; i < newGenotypes.size(); i = i + 1) {
+          long id = counter.getAndIncrement();
+          if (fingerprints != null) {
+            seen.born(id, fingerprints.get(i));
+          }
+          offspringChildGenotypes.add(new ChildGenotype<>(id, newGenotypes.get(i), parentIds));
+        }
       } else {
         attempts = attempts + 1;
       }
     }
-    // map and decorate and trim
-    Collection<Individual<G, S, List<Double>>> newPopulation = mapAll(
+    // map, rank and trim
+    List<Individual<G, S, List<Double>>> newPopulation = List.copyOf(mapAll(
         offspringChildGenotypes,
-        (cg, s, r) -> RankedIndividual.from(
-            Individual.from(cg, solutionMapper, s.problem().qualityFunction(), s.nOfIterations())),
+        (cg, s, r) -> Individual.from(cg, solutionMapper, s.problem().qualityFunction(), s.nOfIterations()),
         state.pocPopulation().all(),
-        (i, s, r) -> RankedIndividual.from(i.updatedWithQuality(s)),
+        (i, s, r) -> i.updatedWithQuality(s),
         state,
         random,
-        executor);
-    List<RankedIndividual<G, S>> rankedIndividuals = decorate(newPopulation, state.problem()).stream()
-        .sorted(rankedComparator())
-        .limit(populationSize)
-        .toList();
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    List<Individual<G, S, List<Double>>> newIndividuals = (List) rankedIndividuals;
-    return state.updatedWithIteration(
-        offspringChildGenotypes.size(),
-        offspringChildGenotypes.size() + (remap ? populationSize : 0),
-        PartiallyOrderedCollection.from(newIndividuals, partialComparator(state.problem())));
+        executor));
+    Ranking ranking = rank(newPopulation, state.problem().comparators());
+    int[] keptIndexes = new int[Math.min(populationSize, newPopulation.size())];
+    int nOfKept = 0;
+    for (int[] front : ranking.fronts()) {
+      if (nOfKept == keptIndexes.length) {
+        break;
+      }
+      int[] sortedFront = front.clone();
+      double[] crowdingDistances = ranking.crowdingDistances();
+      sortIndexes(sortedFront, (i1, i2) -> Double.compare(crowdingDistances[i2], crowdingDistances[i1]));
+      int nOfFrontKept = Math.min(sortedFront.length, keptIndexes.length - nOfKept);
+      System.arraycopy(sortedFront, 0, keptIndexes, nOfKept, nOfFrontKept);
+      nOfKept = nOfKept + nOfFrontKept;
+    }
+    POCPopulationState<
+            Individual<G, S, List<Double>>, G, S, List<Double>, MultiHomogeneousObjectiveProblem<S, Double>>
+        newState = state.updatedWithIteration(
+            offspringChildGenotypes.size(),
+            offspringChildGenotypes.size() + (remap ? populationSize : 0),
+            rankedPoc(newPopulation, ranking, keptIndexes, state.problem()));
+    return seen == null
+        ? newState
+        : newState.updatedWithUniquenessMemory(seen.memory(newState.pocPopulation().all()));
   }
 }
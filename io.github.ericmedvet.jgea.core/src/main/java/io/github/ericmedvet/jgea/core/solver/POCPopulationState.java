@@ -34,6 +34,10 @@ public interface POCPopulationState<I extends Individual<G, S, Q>, G, S, Q, P ex
 
   PartiallyOrderedCollection<I> pocPopulation();
 
+  default UniquenessFilter.Memory uniquenessMemory() {
+    return null;
+  }
+
   static <I extends Individual<G, S, Q>, G, S, Q, P extends QualityBasedProblem<S, Q>>
       POCPopulationState<I, G, S, Q, P> of(
           LocalDateTime startingDateTime,
@@ -44,6 +48,29 @@ public interface POCPopulationState<I extends Individual<G, S, Q>, G, S, Q, P ex
           long nOfBirths,
           long nOfQualityEvaluations,
           PartiallyOrderedCollection<I> pocPopulation) {
+    return of(
+        startingDateTime,
+        elapsedMillis,
+        nOfIterations,
+        problem,
+        stopCondition,
+        nOfBirths,
+        nOfQualityEvaluations,
+        pocPopulation,
+        null);
+  }
+
+  static <I extends Individual<G, S, Q>, G, S, Q, P extends QualityBasedProblem<S, Q>>
+      POCPopulationState<I, G, S, Q, P> of(
+          LocalDateTime startingDateTime,
+          long elapsedMillis,
+          long nOfIterations,
+          P problem,
+          Predicate<State<?, ?>> stopCondition,
+          long nOfBirths,
+          long nOfQualityEvaluations,
+          PartiallyOrderedCollection<I> pocPopulation,
+          UniquenessFilter.Memory uniquenessMemory) {
     record HardState<I extends Individual<G, S, Q>, G, S, Q, P extends QualityBasedProblem<S, Q>>(
         LocalDateTime startingDateTime,
         long elapsedMillis,
@@ -52,7 +79,8 @@ public interface POCPopulationState<I extends Individual<G, S, Q>, G, S, Q, P ex
         Predicate<State<?, ?>> stopCondition,
         long nOfBirths,
         long nOfQualityEvaluations,
-        PartiallyOrderedCollection<I> pocPopulation)
+        PartiallyOrderedCollection<I> pocPopulation,
+        UniquenessFilter.Memory uniquenessMemory)
         implements POCPopulationState<I, G, S, Q, P> {}
     return new HardState<>(
         startingDateTime,
@@ -62,7 +90,8 @@ public interface POCPopulationState<I extends Individual<G, S, Q>, G, S, Q, P ex
         stopCondition,
         nOfBirths,
         nOfQualityEvaluations,
-        pocPopulation);
+        pocPopulation,
+        uniquenessMemory);
   }
 
   static <I extends Individual<G, S, Q>, G, S, Q, P extends QualityBasedProblem<S, Q>>
@@ -80,7 +109,21 @@ public interface POCPopulationState<I extends Individual<G, S, Q>, G, S, Q, P ex
         stopCondition(),
         nOfBirths() + nOfNewBirths,
         nOfQualityEvaluations() + nOfNewQualityEvaluations,
-        pocPopulation);
+        pocPopulation,
+        uniquenessMemory());
+  }
+
+  default POCPopulationState<I, G, S, Q, P> updatedWithUniquenessMemory(UniquenessFilter.Memory uniquenessMemory) {
+    return of(
+        startingDateTime(),
+        elapsedMillis(),
+        nOfIterations(),
+        problem(),
+        stopCondition(),
+        nOfBirths(),
+        nOfQualityEvaluations(),
+        pocPopulation(),
+        uniquenessMemory);
   }
 
   @Override
@@ -93,6 +136,7 @@ public interface POCPopulationState<I extends Individual<G, S, Q>, G, S, Q, P ex
         stopCondition(),
         nOfBirths(),
         nOfQualityEvaluations(),
-        pocPopulation());
+        pocPopulation(),
+        uniquenessMemory());
   }
 }
@@ -51,6 +51,37 @@ public class StandardEvolver<G, S, Q>
       boolean overlapping,
       int maxUniquenessAttempts,
       boolean remap) {
+    this(
+        solutionMapper,
+        genotypeFactory,
+        populationSize,
+        stopCondition,
+        operators,
+        parentSelector,
+        unsurvivalSelector,
+        offspringSize,
+        overlapping,
+        maxUniquenessAttempts,
+        remap,
+        false,
+        new UniquenessFilter<>());
+  }
+
+  public StandardEvolver(
+      Function<? super G, ? extends S> solutionMapper,
+      Factory<? extends G> genotypeFactory,
+      int populationSize,
+      Predicate<? super POCPopulationState<Individual<G, S, Q>, G, S, Q, QualityBasedProblem<S, Q>>>
+          stopCondition,
+      Map<GeneticOperator<G>, Double> operators,
+      Selector<? super Individual<G, S, Q>> parentSelector,
+      Selector<? super Individual<G, S, Q>> unsurvivalSelector,
+      int offspringSize,
+      boolean overlapping,
+      int maxUniquenessAttempts,
+      boolean remap,
+      boolean streaming,
+      UniquenessFilter<G> uniquenessFilter) {
     super(
         solutionMapper,
         genotypeFactory,
@@ -62,7 +93,9 @@ public class StandardEvolver<G, S, Q>
         offspringSize,
         overlapping,
         maxUniquenessAttempts,
-        remap);
+        remap,
+        streaming,
+        uniquenessFilter);
   }
 
   @Override
@@ -98,4 +131,11 @@ public class StandardEvolver<G, S, Q>
         nOfNewFitnessEvaluations,
         PartiallyOrderedCollection.from(individuals, partialComparator(state.problem())));
   }
+
+  @Override
+  protected POCPopulationState<Individual<G, S, Q>, G, S, Q, QualityBasedProblem<S, Q>> updatedWithUniquenessMemory(
+      POCPopulationState<Individual<G, S, Q>, G, S, Q, QualityBasedProblem<S, Q>> state,
+      UniquenessFilter.Memory uniquenessMemory) {
+    return state.updatedWithUniquenessMemory(uniquenessMemory);
+  }
 }
@@ -0,0 +1,309 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.solver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class UniquenessFilter<G> {
+
+  private final Function<? super G, Fingerprint> fingerprinter;
+  private final boolean history;
+
+  public UniquenessFilter(Function<? super G, Fingerprint> fingerprinter, boolean history) {
+    this.fingerprinter = fingerprinter;
+    this.history = history;
+  }
+
+  public UniquenessFilter() {
+    this(hashCodeFingerprinter(), false);
+  }
+
+  public record Fingerprint(long high, long low) {}
+
+  // genotypes of the population, with their fingerprints cached by individual id, and the fingerprints of all the
+  // genotypes born in the run, if the history is kept
+  public record Memory(Map<Long, Fingerprint> fingerprints, History history) {}
+
+  // 64 bits, derived from hashCode(): collisions are frequent, hence it is not suitable for the history
+  public static Function<Object, Fingerprint> hashCodeFingerprinter() {
+    return o -> new Fingerprint(0L, mix(o.hashCode()));
+  }
+
+  // 128 bits, derived from toString(): suitable for genotypes whose string representation determines them, e.g.,
+  // trees, bit strings, and lists of numbers
+  public static Function<Object, Fingerprint> toStringFingerprinter() {
+    return o -> {
+      byte[] bytes = o.toString().getBytes(StandardCharsets.UTF_8);
+      long h1 = 0xcbf29ce484222325L;
+      long h2 = 0x9e3779b97f4a7c15L;
+      for (byte b : bytes) {
+        h1 = (h1 ^ (b & 0xff)) * 0x100000001b3L;
+        h2 = Long.rotateLeft(h2 ^ (b & 0xff), 31) * 0x87c37b91114253d5L;
+      }
+      return new Fingerprint(mix(h1 ^ bytes.length), mix(h2 + h1));
+    };
+  }
+
+  // splitmix64 finalizer
+  private static long mix(long h) {
+    h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+    h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+    return h ^ (h >>> 31);
+  }
+
+  public Memory memory(Collection<? extends Individual<? extends G, ?, ?>> individuals) {
+    Map<Long, Fingerprint> fingerprints = new HashMap<>();
+    individuals.forEach(i -> fingerprints.put(i.id(), fingerprinter.apply(i.genotype())));
+    return new Memory(Map.copyOf(fingerprints), history ? History.EMPTY.with(fingerprints.values()) : null);
+  }
+
+  public Seen<G> seen(Collection<? extends Individual<? extends G, ?, ?>> individuals, Memory memory) {
+    Map<Long, Fingerprint> fingerprints = new HashMap<>();
+    for (Individual<? extends G, ?, ?> individual : individuals) {
+      Fingerprint fingerprint = memory == null ? null : memory.fingerprints().get(individual.id());
+      fingerprints.put(
+          individual.id(), fingerprint == null ? fingerprinter.apply(individual.genotype()) : fingerprint);
+    }
+    Seen<G> seen = new Seen<>(
+        fingerprinter,
+        history ? (memory == null || memory.history() == null ? History.EMPTY : memory.history()) : null,
+        fingerprints);
+    for (Individual<? extends G, ?, ?> individual : individuals) {
+      seen.add(fingerprints.get(individual.id()), individual.genotype(), List.of(), true);
+    }
+    return seen;
+  }
+
+  // fingerprints are stored as (high, low) pairs in sorted runs which are never modified once built; a new run is
+  // merged with the previous ones while they are not larger, hence there are O(log n) runs
+  public static final class History {
+    private static final History EMPTY = new History(List.of());
+    private static final Comparator<Fingerprint> COMPARATOR =
+        Comparator.comparingLong(Fingerprint::high).thenComparingLong(Fingerprint::low);
+
+    private final List<long[]> runs;
+
+    private History(List<long[]> runs) {
+      this.runs = runs;
+    }
+
+    private static int compare(long[] run, int i, long high, long low) {
+      int c = Long.compare(run[2 * i], high);
+      return c != 0 ? c : Long.compare(run[2 * i + 1], low);
+    }
+
+    private static long[] merge(long[] run1, long[] run2) {
+      long[] merged = new long[run1.length + run2.length];
+      int i1 = 0;
+      int i2 = 0;
+      int n = 0;
+      while (i1 < run1.length || i2 < run2.length) {
+        long[] run;
+        int i;
+        if (i2 >= run2.length
+            || (i1 < run1.length && compare(run1, i1 / 2, run2[i2], run2[i2 + 1]) <= 0)) {
+          run = run1;
+          i = i1;
+          i1 = i1 + 2;
+        } else {
+          run = run2;
+          i = i2;
+          i2 = i2 + 2;
+        }
+        if (n == 0 || merged[n - 2] != run[i] || merged[n - 1] != run[i + 1]) {
+          merged[n] = run[i];
+          merged[n + 1] = run[i + 1];
+          n = n + 2;
+        }
+      }
+      return n == merged.length ? merged : Arrays.copyOf(merged, n);
+    }
+
+    public boolean contains(Fingerprint fingerprint) {
+      for (long[] run : runs) {
+        int low = 0;
+        int high = run.length / 2 - 1;
+        while (low <= high) {
+          int mid = (low + high) >>> 1;
+          int c = compare(run, mid, fingerprint.high(), fingerprint.low());
+          if (c == 0) {
+            return true;
+          }
+          if (c < 0) {
+            low = mid + 1;
+          } else {
+            high = mid - 1;
+          }
+        }
+      }
+      return false;
+    }
+
+    public long size() {
+      return runs.stream().mapToLong(run -> run.length / 2).sum();
+    }
+
+    public History with(Collection<Fingerprint> fingerprints) {
+      if (fingerprints.isEmpty()) {
+        return this;
+      }
+      Fingerprint[] sorted = fingerprints.toArray(Fingerprint[]::new);
+      Arrays.sort(sorted, COMPARATOR);
+      long[] run = new long[2 * sorted.length];
+      for (int i = 0; i < sorted.length; i = i + 1) {
+        run[2 * i] = sorted[i].high();
+        run[2 * i + 1] = sorted[i].low();
+      }
+      run = merge(new long[0], run);
+      List<long[]> newRuns = new ArrayList<>(runs);
+      while (!newRuns.isEmpty() && newRuns.getLast().length <= run.length) {
+        run = merge(newRuns.removeLast(), run);
+      }
+      newRuns.add(run);
+      return new History(List.copyOf(newRuns));
+    }
+  }
+
+  public static class Seen<G> {
+    private final Function<? super G, Fingerprint> fingerprinter;
+    private final History history;
+    private final Map<Long, Fingerprint> parentFingerprints;
+    private final Map<Long, Fingerprint> childFingerprints;
+    private final Map<Fingerprint, Bucket<G>> buckets;
+
+    private Seen(
+        Function<? super G, Fingerprint> fingerprinter,
+        History history,
+        Map<Long, Fingerprint> parentFingerprints) {
+      this.fingerprinter = fingerprinter;
+      this.history = history;
+      this.parentFingerprints = parentFingerprints;
+      childFingerprints = new ConcurrentHashMap<>();
+      buckets = new ConcurrentHashMap<>();
+    }
+
+    // buckets are immutable and compared by identity, so that they can be swapped with a compare-and-set and the
+    // equality checks can be done outside of the map locks
+    private static final class Bucket<G> {
+      private final List<G> genotypes;
+
+      private Bucket(List<G> genotypes) {
+        this.genotypes = genotypes;
+      }
+    }
+
+    private boolean add(Fingerprint fingerprint, G genotype, List<? extends G> siblings, boolean force) {
+      while (true) {
+        Bucket<G> bucket = buckets.get(fingerprint);
+        if (!force && bucket != null && containsOther(bucket, genotype, siblings)) {
+          return false;
+        }
+        List<G> genotypes = new ArrayList<>(bucket == null ? 1 : bucket.genotypes.size() + 1);
+        if (bucket != null) {
+          genotypes.addAll(bucket.genotypes);
+        }
+        genotypes.add(genotype);
+        Bucket<G> newBucket = new Bucket<>(List.copyOf(genotypes));
+        if (bucket == null
+            ? buckets.putIfAbsent(fingerprint, newBucket) == null
+            : buckets.replace(fingerprint, bucket, newBucket)) {
+          return true;
+        }
+      }
+    }
+
+    // siblings already added in the same attempt do not count as duplicates, as they are all accepted or none is
+    private static <G> boolean containsOther(Bucket<G> bucket, G genotype, List<? extends G> siblings) {
+      for (G other : bucket.genotypes) {
+        if (other.equals(genotype) && siblings.stream().noneMatch(s -> s == other)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    public void born(long id, Fingerprint fingerprint) {
+      childFingerprints.put(id, fingerprint);
+    }
+
+    public Memory memory(Collection<? extends Individual<? extends G, ?, ?>> individuals) {
+      Map<Long, Fingerprint> fingerprints = new HashMap<>();
+      for (Individual<? extends G, ?, ?> individual : individuals) {
+        Fingerprint fingerprint = parentFingerprints.get(individual.id());
+        if (fingerprint == null) {
+          fingerprint = childFingerprints.get(individual.id());
+        }
+        fingerprints.put(
+            individual.id(), fingerprint == null ? fingerprinter.apply(individual.genotype()) : fingerprint);
+      }
+      return new Memory(
+          Map.copyOf(fingerprints), history == null ? null : history.with(childFingerprints.values()));
+    }
+
+    private void remove(Fingerprint fingerprint, G genotype) {
+      while (true) {
+        Bucket<G> bucket = buckets.get(fingerprint);
+        List<G> genotypes = new ArrayList<>(bucket.genotypes);
+        for (int i = 0; i < genotypes.size(); i = i + 1) {
+          if (genotypes.get(i) == genotype) {
+            genotypes.remove(i);
+            break;
+          }
+        }
+        if (genotypes.isEmpty()
+            ? buckets.remove(fingerprint, bucket)
+            : buckets.replace(fingerprint, bucket, new Bucket<>(List.copyOf(genotypes)))) {
+          return;
+        }
+      }
+    }
+
+    // atomically adds all the genotypes, if none has been seen before, or if forced; returns their fingerprints, or
+    // null if they have not been added
+    public List<Fingerprint> tryAdd(List<? extends G> genotypes, boolean force) {
+      List<Fingerprint> fingerprints = new ArrayList<>(genotypes.size());
+      for (G genotype : genotypes) {
+        Fingerprint fingerprint = fingerprinter.apply(genotype);
+        if (!force && history != null && history.contains(fingerprint)) {
+          return null;
+        }
+        fingerprints.add(fingerprint);
+      }
+      for (int i = 0; i < genotypes.size(); i = i + 1) {
+        if (!add(fingerprints.get(i), genotypes.get(i), genotypes.subList(0, i), force)) {
+          for (int j = 0; j < i; j = j + 1) {
+            remove(fingerprints.get(j), genotypes.get(j));
+          }
+          return null;
+        }
+      }
+      return fingerprints;
+    }
+  }
+}
@@ -104,7 +104,7 @@ public class CellularAutomataBasedSolver<G, S, Q>
     List<Grid.Key> freeCells =
         substrate.keys().stream().filter(substrate::get).toList();
     AtomicLong counter = new AtomicLong(0);
-    List<? extends G> genotypes = genotypeFactory.build(freeCells.size(), random);
+    List<? extends G> genotypes = genotypeFactory.build(freeCells.size(), random, executor);
     List<Individual<G, S, Q>> newIndividuals = getAll(map(
             genotypes.stream()
                 .map(g -> new ChildGenotype<G>(counter.getAndIncrement(), g, List.of()))
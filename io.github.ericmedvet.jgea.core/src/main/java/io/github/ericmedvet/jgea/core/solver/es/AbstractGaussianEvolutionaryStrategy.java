@@ -0,0 +1,145 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.solver.es;
+
+import static io.github.ericmedvet.jgea.core.util.VectorUtils.*;
+
+import io.github.ericmedvet.jgea.core.Factory;
+import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
+import io.github.ericmedvet.jgea.core.solver.AbstractPopulationBasedIterativeSolver;
+import io.github.ericmedvet.jgea.core.solver.Individual;
+import io.github.ericmedvet.jgea.core.solver.SolverException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+// the loop shared by the strategies sampling from N(m, sigma^2 C): x = m + sigma y, with y obtained from z ~ N(0, I)
+// through the strategy-specific representation of C, which is also the only thing the update adapts differently
+public abstract class AbstractGaussianEvolutionaryStrategy<T extends GaussianESState<S, Q, T>, S, Q>
+    extends AbstractPopulationBasedIterativeSolver<
+        T, TotalOrderQualityBasedProblem<S, Q>, CMAESIndividual<S, Q>, List<Double>, S, Q> {
+
+  protected final int p;
+  protected final int populationSize;
+  protected final int mu;
+  protected final double[] weights;
+  protected final double muEff;
+
+  protected AbstractGaussianEvolutionaryStrategy(
+      Function<? super List<Double>, ? extends S> solutionMapper,
+      Factory<? extends List<Double>> genotypeFactory,
+      Predicate<? super T> stopCondition) {
+    super(solutionMapper, genotypeFactory, stopCondition, false);
+    p = genotypeFactory.build(1, new Random(0)).getFirst().size();
+    populationSize = 4 + (int) Math.floor(3 * Math.log(p));
+    // selection and recombination
+    mu = (int) Math.floor(populationSize / 2d);
+    double[] unnormalizedWeights = buildArray(mu, i -> Math.log((populationSize + 1) / 2d) - Math.log(i + 1));
+    double sumOfWeights = Arrays.stream(unnormalizedWeights).sum();
+    double sumOfSquaredWeights =
+        Arrays.stream(mult(unnormalizedWeights, unnormalizedWeights)).sum();
+    weights = mult(unnormalizedWeights, 1d / sumOfWeights);
+    muEff = Math.pow(sumOfWeights, 2) / sumOfSquaredWeights;
+  }
+
+  protected abstract T emptyState(TotalOrderQualityBasedProblem<S, Q> problem, double[] means);
+
+  protected abstract double[] transformed(T state, double[] z);
+
+  protected abstract T updatedDistribution(
+      List<CMAESIndividual<S, Q>> bestIndividuals, T state, ExecutorService executor) throws SolverException;
+
+  private CMAESIndividual<S, Q> buildNewIndividual(
+      ChildGenotype<List<Double>> childGenotype, T state, RandomGenerator random) {
+    double[] zK = buildArray(p, random::nextGaussian);
+    double[] yK = transformed(state, zK);
+    double[] xK = sum(state.means(), mult(yK, state.sigma()));
+    List<Double> g = boxed(xK);
+    S solution = solutionMapper.apply(g);
+    return CMAESIndividual.of(
+        childGenotype.id(),
+        g,
+        solution,
+        state.problem().qualityFunction().apply(solution),
+        state.nOfIterations(),
+        state.nOfIterations(),
+        childGenotype.parentIds(),
+        xK,
+        yK,
+        zK);
+  }
+
+  @Override
+  public T init(TotalOrderQualityBasedProblem<S, Q> problem, RandomGenerator random, ExecutorService executor)
+      throws SolverException {
+    T newState = emptyState(problem, unboxed(genotypeFactory.build(1, random).getFirst()));
+    AtomicLong counter = new AtomicLong(0);
+    List<? extends List<Double>> genotypes = genotypeFactory.build(populationSize, random, executor);
+    Collection<CMAESIndividual<S, Q>> newIndividuals = getAll(map(
+        genotypes.stream()
+            .map(g -> new ChildGenotype<List<Double>>(counter.getAndIncrement(), g, List.of()))
+            .toList(),
+        this::buildNewIndividual,
+        newState,
+        random,
+        executor));
+    return newState.updatedWithIteration(newIndividuals);
+  }
+
+  @Override
+  public T update(RandomGenerator random, ExecutorService executor, T state) throws SolverException {
+    // find best individuals
+    List<CMAESIndividual<S, Q>> bestMuIndividuals = state.listPopulation().stream()
+        .sorted(comparator(state.problem()))
+        .limit(mu)
+        .toList();
+    // update distribution
+    state = updatedDistribution(bestMuIndividuals, state, executor);
+    // sample new population
+    List<Long> parentIds = bestMuIndividuals.stream().map(Individual::id).toList();
+    List<Double> emptyGenotype = List.of();
+    AtomicLong counter = new AtomicLong(state.nOfBirths());
+    Collection<CMAESIndividual<S, Q>> newIndividuals = getAll(map(
+        IntStream.range(0, populationSize)
+            .mapToObj(i -> new ChildGenotype<>(counter.getAndIncrement(), emptyGenotype, parentIds))
+            .toList(),
+        this::buildNewIndividual,
+        state,
+        random,
+        executor));
+    return state.updatedWithIteration(newIndividuals);
+  }
+
+  protected double[] weightedMean(
+      List<CMAESIndividual<S, Q>> individuals, Function<CMAESIndividual<S, Q>, double[]> vectorFunction) {
+    double[][] vectors = new double[mu][];
+    for (int i = 0; i < mu; i = i + 1) {
+      vectors[i] = vectorFunction.apply(individuals.get(i));
+    }
+    return weightedMeanArray(vectors, weights);
+  }
+}
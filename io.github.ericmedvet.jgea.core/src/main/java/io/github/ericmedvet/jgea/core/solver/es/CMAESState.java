@@ -19,198 +19,156 @@
  */
 package io.github.ericmedvet.jgea.core.solver.es;
 
-import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
 import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
 import io.github.ericmedvet.jgea.core.solver.ListPopulationState;
 import io.github.ericmedvet.jgea.core.solver.State;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.Collection;
-import java.util.Comparator;
+import io.github.ericmedvet.jgea.core.util.DenseMatrices;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Predicate;
 import org.apache.commons.math3.linear.MatrixUtils;
 import org.apache.commons.math3.linear.RealMatrix;
 
-public interface CMAESState<S, Q>
-    extends ListPopulationState<CMAESIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>> {
+public interface CMAESState<S, Q> extends GaussianESState<S, Q, CMAESState<S, Q>> {
 
-  RealMatrix B();
+  record EigenFactors(double[] eigenvectors, double[] sqrtEigenvalues, long covarianceIteration) {}
 
-  RealMatrix C();
+  double[] cEvolutionPath();
 
-  RealMatrix D();
+  // row-major, p x p
+  double[] covariance();
 
-  double[] cEvolutionPath();
+  // row-major, p x p, one eigenvector of the covariance per column
+  double[] eigenvectors();
 
   long lastEigenUpdateIteration();
 
-  double[] means();
+  // row-major, p x p, the product of eigenvectors by the diagonal matrix of sqrtEigenvalues
+  double[] samplingMatrix();
 
-  double[] sEvolutionPath();
-
-  double sigma();
+  double[] sqrtEigenvalues();
 
   static <S, Q> CMAESState<S, Q> empty(
       TotalOrderQualityBasedProblem<S, Q> problem, Predicate<State<?, ?>> stopCondition, double[] means) {
     return of(
-        LocalDateTime.now(),
-        0,
-        0,
-        problem,
-        stopCondition,
-        0,
-        0,
-        List.of(),
+        ListPopulationState.empty(problem, stopCondition),
         means,
         0.5,
         new double[means.length],
         new double[means.length],
-        MatrixUtils.createRealIdentityMatrix(means.length),
-        MatrixUtils.createRealIdentityMatrix(means.length),
-        MatrixUtils.createRealIdentityMatrix(means.length),
+        DenseMatrices.identity(means.length),
+        DenseMatrices.identity(means.length),
+        Arrays.stream(means).map(m -> 1d).toArray(),
+        DenseMatrices.identity(means.length),
         0);
   }
 
   static <S, Q> CMAESState<S, Q> of(
-      LocalDateTime startingDateTime,
-      long elapsedMillis,
-      long nOfIterations,
-      TotalOrderQualityBasedProblem<S, Q> problem,
-      Predicate<State<?, ?>> stopCondition,
-      long nOfBirths,
-      long nOfQualityEvaluations,
-      Collection<CMAESIndividual<S, Q>> listPopulation,
+      ListPopulationState<CMAESIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+          populationState,
       double[] means,
       double sigma,
       double[] sEvolutionPath,
       double[] cEvolutionPath,
-      RealMatrix B,
-      RealMatrix C,
-      RealMatrix D,
+      double[] eigenvectors,
+      double[] covariance,
+      double[] sqrtEigenvalues,
+      double[] samplingMatrix,
       long lastEigenUpdateIteration) {
     record HardState<S, Q>(
-        LocalDateTime startingDateTime,
-        long elapsedMillis,
-        long nOfIterations,
-        TotalOrderQualityBasedProblem<S, Q> problem,
-        Predicate<State<?, ?>> stopCondition,
-        long nOfBirths,
-        long nOfQualityEvaluations,
-        PartiallyOrderedCollection<CMAESIndividual<S, Q>> pocPopulation,
-        List<CMAESIndividual<S, Q>> listPopulation,
+        ListPopulationState<CMAESIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+            populationState,
         double[] means,
         double sigma,
         double[] sEvolutionPath,
         double[] cEvolutionPath,
-        RealMatrix B,
-        RealMatrix C,
-        RealMatrix D,
+        double[] eigenvectors,
+        double[] covariance,
+        double[] sqrtEigenvalues,
+        double[] samplingMatrix,
         long lastEigenUpdateIteration)
-        implements CMAESState<S, Q> {}
-    Comparator<CMAESIndividual<S, Q>> comparator =
-        (i1, i2) -> problem.totalOrderComparator().compare(i1.quality(), i2.quality());
-    List<CMAESIndividual<S, Q>> sortedListPopulation =
-        listPopulation.stream().sorted(comparator).toList();
+        implements CMAESState<S, Q> {
+      @Override
+      public CMAESState<S, Q> updatedWith(
+          ListPopulationState<CMAESIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+              populationState,
+          double[] means,
+          double sigma,
+          double[] sEvolutionPath) {
+        return new HardState<>(
+            populationState,
+            means,
+            sigma,
+            sEvolutionPath,
+            cEvolutionPath,
+            eigenvectors,
+            covariance,
+            sqrtEigenvalues,
+            samplingMatrix,
+            lastEigenUpdateIteration);
+      }
+    }
     return new HardState<>(
-        startingDateTime,
-        elapsedMillis,
-        nOfIterations,
-        problem,
-        stopCondition,
-        nOfBirths,
-        nOfQualityEvaluations,
-        PartiallyOrderedCollection.from(sortedListPopulation, comparator),
-        sortedListPopulation,
+        populationState,
         means,
         sigma,
         sEvolutionPath,
         cEvolutionPath,
-        B,
-        C,
-        D,
+        eigenvectors,
+        covariance,
+        sqrtEigenvalues,
+        samplingMatrix,
         lastEigenUpdateIteration);
   }
 
-  default CMAESState<S, Q> updatedWithIteration(Collection<CMAESIndividual<S, Q>> listPopulation) {
-    return of(
-        startingDateTime(),
-        ChronoUnit.MILLIS.between(startingDateTime(), LocalDateTime.now()),
-        nOfIterations() + 1,
-        problem(),
-        stopCondition(),
-        nOfBirths() + listPopulation.size(),
-        nOfQualityEvaluations() + listPopulation.size(),
-        listPopulation,
-        means(),
-        sigma(),
-        sEvolutionPath(),
-        cEvolutionPath(),
-        B(),
-        C(),
-        D(),
-        lastEigenUpdateIteration());
+  // the following build a new matrix from the arrays at each invocation
+  default RealMatrix buildB() {
+    return MatrixUtils.createRealMatrix(DenseMatrices.toRows(eigenvectors()));
+  }
+
+  default RealMatrix buildC() {
+    return MatrixUtils.createRealMatrix(DenseMatrices.toRows(covariance()));
+  }
+
+  default RealMatrix buildD() {
+    return MatrixUtils.createRealDiagonalMatrix(sqrtEigenvalues());
   }
 
-  default CMAESState<S, Q> updatedWithMatrices(RealMatrix B, RealMatrix D) {
+  // iterations the covariance went through since the one the current eigen factors come from
+  default long eigenStaleness() {
+    return nOfIterations() - lastEigenUpdateIteration();
+  }
+
+  default CMAESState<S, Q> updatedWithMatrices(double[] eigenvectors, double[] sqrtEigenvalues) {
+    return updatedWithMatrices(new EigenFactors(eigenvectors, sqrtEigenvalues, nOfIterations()));
+  }
+
+  default CMAESState<S, Q> updatedWithMatrices(EigenFactors eigenFactors) {
     return of(
-        startingDateTime(),
-        elapsedMillis(),
-        nOfIterations(),
-        problem(),
-        stopCondition(),
-        nOfBirths(),
-        nOfQualityEvaluations(),
-        listPopulation(),
+        populationState(),
         means(),
         sigma(),
         sEvolutionPath(),
         cEvolutionPath(),
-        B,
-        C(),
-        D,
-        nOfIterations());
+        eigenFactors.eigenvectors(),
+        covariance(),
+        eigenFactors.sqrtEigenvalues(),
+        DenseMatrices.timesDiagonal(eigenFactors.eigenvectors(), eigenFactors.sqrtEigenvalues()),
+        eigenFactors.covarianceIteration());
   }
 
   default CMAESState<S, Q> updatedWithPaths(
-      double[] means, double sigma, double[] sEvolutionPath, double[] cEvolutionPath, RealMatrix C) {
+      double[] means, double sigma, double[] sEvolutionPath, double[] cEvolutionPath, double[] covariance) {
     return of(
-        startingDateTime(),
-        elapsedMillis(),
-        nOfIterations(),
-        problem(),
-        stopCondition(),
-        nOfBirths(),
-        nOfQualityEvaluations(),
-        listPopulation(),
+        populationState(),
         means,
         sigma,
         sEvolutionPath,
         cEvolutionPath,
-        B(),
-        C,
-        D(),
-        lastEigenUpdateIteration());
-  }
-
-  @Override
-  default CMAESState<S, Q> updatedWithProblem(TotalOrderQualityBasedProblem<S, Q> problem) {
-    return of(
-        startingDateTime(),
-        elapsedMillis(),
-        nOfIterations(),
-        problem,
-        stopCondition(),
-        nOfBirths(),
-        nOfQualityEvaluations(),
-        listPopulation(),
-        means(),
-        sigma(),
-        sEvolutionPath(),
-        cEvolutionPath(),
-        B(),
-        C(),
-        D(),
+        eigenvectors(),
+        covariance,
+        sqrtEigenvalues(),
+        samplingMatrix(),
         lastEigenUpdateIteration());
   }
 }
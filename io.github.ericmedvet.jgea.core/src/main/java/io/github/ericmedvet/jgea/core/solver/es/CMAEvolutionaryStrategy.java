@@ -24,71 +24,68 @@ import static io.github.ericmedvet.jgea.core.util.VectorUtils.*;
 
 import io.github.ericmedvet.jgea.core.Factory;
 import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
-import io.github.ericmedvet.jgea.core.solver.AbstractPopulationBasedIterativeSolver;
-import io.github.ericmedvet.jgea.core.solver.Individual;
 import io.github.ericmedvet.jgea.core.solver.SolverException;
-import java.util.Arrays;
-import java.util.Collection;
+import io.github.ericmedvet.jgea.core.util.DenseMatrices;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.logging.Logger;
 import java.util.random.RandomGenerator;
-import java.util.stream.IntStream;
 import org.apache.commons.math3.linear.EigenDecomposition;
-import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.MatrixUtils;
 
 // source -> https://arxiv.org/pdf/1604.00772.pdf
 
-public class CMAEvolutionaryStrategy<S, Q>
-    extends AbstractPopulationBasedIterativeSolver<
-        CMAESState<S, Q>, TotalOrderQualityBasedProblem<S, Q>, CMAESIndividual<S, Q>, List<Double>, S, Q> {
+public class CMAEvolutionaryStrategy<S, Q> extends AbstractGaussianEvolutionaryStrategy<CMAESState<S, Q>, S, Q> {
 
   private static final Logger L = Logger.getLogger(CMAEvolutionaryStrategy.class.getName());
-  private final int mu;
-  private final double[] weights;
+  private static final int BLOCK_SIZE = 64;
   private final double cSigma;
   private final double dSigma;
   private final double cc;
   private final double c1;
   private final double cMu;
-  private final double muEff;
-  private final int p;
   private final double chiN;
-  private final int populationSize;
+  private final boolean parallelUpdate;
+  private final boolean asyncEigenDecomposition;
+  // states are values, hence the decomposition running in background is kept here, with the run it belongs to; a
+  // solver interleaving many runs just starts more decompositions
+  private final AtomicReference<PendingEigenFactors> pendingEigenFactors;
 
   public CMAEvolutionaryStrategy(
       Function<? super List<Double>, ? extends S> solutionMapper,
       Factory<? extends List<Double>> genotypeFactory,
       Predicate<? super CMAESState<S, Q>> stopCondition) {
-    this(
-        solutionMapper,
-        genotypeFactory,
-        stopCondition,
-        genotypeFactory.build(1, new Random(0)).getFirst().size());
+    this(solutionMapper, genotypeFactory, stopCondition, false);
   }
 
-  private CMAEvolutionaryStrategy(
+  public CMAEvolutionaryStrategy(
       Function<? super List<Double>, ? extends S> solutionMapper,
       Factory<? extends List<Double>> genotypeFactory,
       Predicate<? super CMAESState<S, Q>> stopCondition,
-      int p) {
-    super(solutionMapper, genotypeFactory, stopCondition, false);
-    populationSize = 4 + (int) Math.floor(3 * Math.log(p));
+      boolean parallelUpdate) {
+    this(solutionMapper, genotypeFactory, stopCondition, parallelUpdate, false);
+  }
+
+  public CMAEvolutionaryStrategy(
+      Function<? super List<Double>, ? extends S> solutionMapper,
+      Factory<? extends List<Double>> genotypeFactory,
+      Predicate<? super CMAESState<S, Q>> stopCondition,
+      boolean parallelUpdate,
+      boolean asyncEigenDecomposition) {
+    super(solutionMapper, genotypeFactory, stopCondition);
+    this.parallelUpdate = parallelUpdate;
+    this.asyncEigenDecomposition = asyncEigenDecomposition;
+    pendingEigenFactors = new AtomicReference<>();
     // see table 1 of the linked paper for parameters values
-    this.p = p;
     chiN = Math.sqrt(p) * (1d - 1d / (4d * (double) p) + 1d / (21d * Math.pow(p, 2)));
-    // selection and recombination
-    mu = (int) Math.floor(populationSize / 2d);
-    double[] unnormalizedWeights = buildArray(mu, i -> Math.log((populationSize + 1) / 2d) - Math.log(i + 1));
-    double sumOfWeights = Arrays.stream(unnormalizedWeights).sum();
-    double sumOfSquaredWeights =
-        Arrays.stream(mult(unnormalizedWeights, unnormalizedWeights)).sum();
-    weights = mult(unnormalizedWeights, 1d / sumOfWeights);
-    muEff = Math.pow(sumOfWeights, 2) / sumOfSquaredWeights;
     // step size control
     cSigma = (muEff + 2) / (p + muEff + 5);
     dSigma = 1 + 2 * Math.max(0, Math.sqrt((muEff - 1) / (p + 1d)) - 1) + cSigma;
@@ -98,107 +95,107 @@ public class CMAEvolutionaryStrategy<S, Q>
     cMu = Math.min(1 - c1, 2 * (muEff - 2 + 1 / muEff) / (Math.pow((p + 2), 2) + 2 * muEff / 2d));
   }
 
-  private CMAESIndividual<S, Q> buildNewIndividual(
-      ChildGenotype<List<Double>> childGenotype, CMAESState<S, Q> state, RandomGenerator random) {
-    double[] zK = buildArray(p, random::nextGaussian);
-    double[] yK = state.B().preMultiply(state.D().preMultiply(zK));
-    double[] xK = sum(state.means(), mult(yK, state.sigma()));
-    List<Double> g = boxed(xK);
-    S solution = solutionMapper.apply(g);
-    return CMAESIndividual.of(
-        childGenotype.id(),
-        g,
-        solution,
-        state.problem().qualityFunction().apply(solution),
-        state.nOfIterations(),
-        state.nOfIterations(),
-        childGenotype.parentIds(),
-        xK,
-        yK,
-        zK);
+  private record PendingEigenFactors(LocalDateTime runStartingDateTime, Future<CMAESState.EigenFactors> future) {}
+
+  @Override
+  protected CMAESState<S, Q> emptyState(TotalOrderQualityBasedProblem<S, Q> problem, double[] means) {
+    return CMAESState.empty(problem, stopCondition(), means);
   }
 
-  private CMAESState<S, Q> eigenDecomposition(CMAESState<S, Q> state) {
-    L.fine(String.format("Eigen decomposition of covariance matrix (i=%d)", state.nOfIterations()));
-    EigenDecomposition eig = new EigenDecomposition(state.C());
-    RealMatrix B = eig.getV();
-    RealMatrix D = eig.getD();
+  // y = B D z as in the paper; up to the primitive-array rewrite, RealMatrix.preMultiply() computed z^T D B, i.e.,
+  // B^T D z: points were sampled with B^T instead of B
+  @Override
+  protected double[] transformed(CMAESState<S, Q> state, double[] z) {
+    return DenseMatrices.times(state.samplingMatrix(), z);
+  }
+
+  private CMAESState.EigenFactors eigenDecomposition(double[] covariance, long iteration) {
+    L.fine(String.format("Eigen decomposition of covariance matrix (i=%d)", iteration));
+    EigenDecomposition eig = new EigenDecomposition(MatrixUtils.createRealMatrix(DenseMatrices.toRows(covariance)));
+    double[] eigenvalues = eig.getRealEigenvalues();
+    double[] sqrtEigenvalues = new double[p];
     for (int i = 0; i < p; i++) {
-      if (D.getEntry(i, i) < 0) {
+      if (eigenvalues[i] < 0) {
         L.warning("An eigenvalue has become negative");
-        D.setEntry(i, i, 0d);
+        eigenvalues[i] = 0d;
       }
-      D.setEntry(i, i, Math.sqrt(D.getEntry(i, i)));
+      sqrtEigenvalues[i] = Math.sqrt(eigenvalues[i]);
     }
-    return state.updatedWithMatrices(B, D);
+    return new CMAESState.EigenFactors(DenseMatrices.fromRows(eig.getV().getData()), sqrtEigenvalues, iteration);
   }
 
-  @Override
-  public CMAESState<S, Q> init(
-      TotalOrderQualityBasedProblem<S, Q> problem, RandomGenerator random, ExecutorService executor)
+  // in async mode, sampling goes on with the current factors while the new ones are computed on the executor; they
+  // are swapped in at the first update after they are ready
+  private CMAESState<S, Q> updateEigenFactors(CMAESState<S, Q> state, ExecutorService executor)
       throws SolverException {
-    CMAESState<S, Q> newState = CMAESState.empty(
-        problem,
-        stopCondition(),
-        unboxed(genotypeFactory.build(1, random).getFirst()));
-    AtomicLong counter = new AtomicLong(0);
-    List<? extends List<Double>> genotypes = genotypeFactory.build(populationSize, random);
-    Collection<CMAESIndividual<S, Q>> newIndividuals = getAll(map(
-        genotypes.stream()
-            .map(g -> new ChildGenotype<List<Double>>(counter.getAndIncrement(), g, List.of()))
-            .toList(),
-        this::buildNewIndividual,
-        newState,
-        random,
-        executor));
-    return newState.updatedWithIteration(newIndividuals);
+    boolean due = (state.nOfIterations() - state.lastEigenUpdateIteration()) > (1d / (c1 + cMu) / p / 10d);
+    if (!asyncEigenDecomposition) {
+      return due ? state.updatedWithMatrices(eigenDecomposition(state.covariance(), state.nOfIterations())) : state;
+    }
+    PendingEigenFactors pending = pendingEigenFactors(state);
+    if (pending != null && !pending.future().isCancelled()) {
+      if (!pending.future().isDone()) {
+        return state;
+      }
+      try {
+        state = state.updatedWithMatrices(pending.future().get());
+      } catch (InterruptedException | ExecutionException e) {
+        throw new SolverException(e);
+      }
+      pendingEigenFactors.compareAndSet(pending, null);
+      L.fine(String.format(
+          "Eigen factors swapped in with staleness %d (i=%d)", state.eigenStaleness(), state.nOfIterations()));
+      due = (state.nOfIterations() - state.lastEigenUpdateIteration()) > (1d / (c1 + cMu) / p / 10d);
+    }
+    if (due) {
+      double[] covariance = state.covariance();
+      long iteration = state.nOfIterations();
+      pendingEigenFactors.set(new PendingEigenFactors(
+          state.startingDateTime(), executor.submit(() -> eigenDecomposition(covariance, iteration))));
+    }
+    return state;
+  }
+
+  private PendingEigenFactors pendingEigenFactors(CMAESState<S, Q> state) {
+    PendingEigenFactors pending = pendingEigenFactors.get();
+    return pending != null && pending.runStartingDateTime().equals(state.startingDateTime()) ? pending : null;
   }
 
+  // a decomposition still running when the run stops would never be swapped in, hence it is cancelled
   @Override
-  public CMAESState<S, Q> update(RandomGenerator random, ExecutorService executor, CMAESState<S, Q> state)
+  public boolean terminate(RandomGenerator random, ExecutorService executor, CMAESState<S, Q> state) {
+    boolean terminate = super.terminate(random, executor, state);
+    PendingEigenFactors pending = pendingEigenFactors(state);
+    if (terminate && pending != null) {
+      pending.future().cancel(true);
+      pendingEigenFactors.compareAndSet(pending, null);
+    }
+    return terminate;
+  }
+
+  @Override
+  protected CMAESState<S, Q> updatedDistribution(
+      List<CMAESIndividual<S, Q>> bestIndividuals, CMAESState<S, Q> state, ExecutorService executor)
       throws SolverException {
-    // find best individuals
-    List<CMAESIndividual<S, Q>> bestMuIndividuals = state.listPopulation().stream()
-        .sorted(comparator(state.problem()))
-        .limit(mu)
-        .toList();
-    // update distribution
-    state = updateDistribution(bestMuIndividuals, state);
     // update B and D from C
-    if ((state.nOfIterations() - state.lastEigenUpdateIteration()) > (1d / (c1 + cMu) / p / 10d)) {
-      state = eigenDecomposition(state);
-    }
-    // sample new population
-    List<Long> parentIds = bestMuIndividuals.stream().map(Individual::id).toList();
-    List<Double> emptyGenotype = List.of();
-    AtomicLong counter = new AtomicLong(state.nOfBirths());
-    Collection<CMAESIndividual<S, Q>> newIndividuals = getAll(map(
-        IntStream.range(0, populationSize)
-            .mapToObj(i -> new ChildGenotype<>(counter.getAndIncrement(), emptyGenotype, parentIds))
-            .toList(),
-        this::buildNewIndividual,
-        state,
-        random,
-        executor));
-    return state.updatedWithIteration(newIndividuals);
+    return updateEigenFactors(updateDistribution(bestIndividuals, state, executor), executor);
   }
 
-  private CMAESState<S, Q> updateDistribution(List<CMAESIndividual<S, Q>> bestIndividuals, CMAESState<S, Q> state) {
+  private CMAESState<S, Q> updateDistribution(
+      List<CMAESIndividual<S, Q>> bestIndividuals, CMAESState<S, Q> state, ExecutorService executor)
+      throws SolverException {
     // best mu ranked points
-    double[][] xMu = new double[mu][p];
-    double[][] yMu = new double[mu][p];
-    double[][] zMu = new double[mu][p];
+    double[][] yMu = new double[mu][];
     for (int i = 0; i < mu; i++) {
-      xMu[i] = bestIndividuals.get(i).x();
       yMu[i] = bestIndividuals.get(i).y();
-      zMu[i] = bestIndividuals.get(i).z();
     }
     // selection and recombination
-    double[] updatedDistributionMeans = weightedMeanArray(xMu, weights);
+    double[] updatedDistributionMeans = weightedMean(bestIndividuals, CMAESIndividual::x);
     double[] yW = mult(diff(updatedDistributionMeans, state.means()), 1d / state.sigma());
     // step size control
-    double[] zM = weightedMeanArray(zMu, weights);
-    double[] bzM = state.B().preMultiply(zM);
+    double[] zM = weightedMean(bestIndividuals, CMAESIndividual::z);
+    // B <z>_w as in the paper; up to the primitive-array rewrite, this was computed as <z>_w^T B, i.e., with B^T
+    double[] bzM = DenseMatrices.times(state.eigenvectors(), zM);
     double[] sEvolutionPath = buildArray(
         p,
         i -> (1d - cSigma) * state.sEvolutionPath()[i] + (Math.sqrt(cSigma * (2d - cSigma) * muEff)) * bzM[i]);
@@ -217,16 +214,88 @@ public class CMAEvolutionaryStrategy<S, Q>
     double[] cEvolutionPath = buildArray(
         p, i -> (1 - cc) * state.cEvolutionPath()[i] + hSigma * Math.sqrt(cc * (2 - cc) * muEff) * yW[i]);
     double deltaH = (1 - hSigma) * cc * (2 - cc);
-    IntStream.range(0, p).forEach(i -> IntStream.range(0, i + 1).forEach(j -> {
-      double cij = (1 + c1 * deltaH - c1 - cMu) * state.C().getEntry(i, j)
-          + c1 * cEvolutionPath[i] * cEvolutionPath[j]
-          + cMu
-              * IntStream.range(0, mu)
-                  .mapToDouble(k -> weights[k] * yMu[k][i] * yMu[k][j])
-                  .sum();
-      state.C().setEntry(i, j, cij);
-      state.C().setEntry(j, i, cij);
-    }));
-    return state.updatedWithPaths(updatedDistributionMeans, sigma, sEvolutionPath, cEvolutionPath, state.C());
+    double[] covariance = updatedCovariance(
+        state.covariance(), 1 + c1 * deltaH - c1 - cMu, cEvolutionPath, yMu, executor);
+    return state.updatedWithPaths(updatedDistributionMeans, sigma, sEvolutionPath, cEvolutionPath, covariance);
+  }
+
+  // C' = decay C + c1 pc pc^T + cMu sum_k w_k y_k y_k^T, computed on the lower triangle one block of rows at a time,
+  // each block being a task when parallelUpdate is set
+  private double[] updatedCovariance(
+      double[] covariance, double decay, double[] cEvolutionPath, double[][] yMu, ExecutorService executor)
+      throws SolverException {
+    double[] updated = new double[p * p];
+    double[][] weightedYMu = new double[mu][];
+    for (int k = 0; k < mu; k++) {
+      weightedYMu[k] = mult(yMu[k], cMu * weights[k]);
+    }
+    if (parallelUpdate && p > BLOCK_SIZE) {
+      List<Callable<Void>> tasks = new ArrayList<>();
+      for (int from = 0; from < p; from = from + BLOCK_SIZE) {
+        int blockFrom = from;
+        tasks.add(() -> {
+          updateCovarianceRows(
+              covariance,
+              updated,
+              decay,
+              cEvolutionPath,
+              yMu,
+              weightedYMu,
+              blockFrom,
+              Math.min(p, blockFrom + BLOCK_SIZE));
+          return null;
+        });
+      }
+      getAll(tasks, executor);
+    } else {
+      for (int from = 0; from < p; from = from + BLOCK_SIZE) {
+        updateCovarianceRows(
+            covariance, updated, decay, cEvolutionPath, yMu, weightedYMu, from, Math.min(p, from + BLOCK_SIZE));
+      }
+    }
+    return updated;
+  }
+
+  // the block of rows is split in tiles of BLOCK_SIZE columns: each tile is first set with the rank-one term and then
+  // accumulates the rank-mu terms, each reading only the slice of y_k spanned by the tile, hence both stay in cache;
+  // the upper triangle is filled by symmetry
+  private void updateCovarianceRows(
+      double[] covariance,
+      double[] updated,
+      double decay,
+      double[] cEvolutionPath,
+      double[][] yMu,
+      double[][] weightedYMu,
+      int fromRow,
+      int toRow) {
+    for (int fromColumn = 0; fromColumn < toRow; fromColumn = fromColumn + BLOCK_SIZE) {
+      int toColumn = Math.min(toRow, fromColumn + BLOCK_SIZE);
+      for (int i = fromRow; i < toRow; i = i + 1) {
+        int row = i * p;
+        double c1Pci = c1 * cEvolutionPath[i];
+        int to = Math.min(i + 1, toColumn);
+        for (int j = fromColumn; j < to; j = j + 1) {
+          updated[row + j] = decay * covariance[row + j] + c1Pci * cEvolutionPath[j];
+        }
+      }
+      for (int k = 0; k < mu; k = k + 1) {
+        double[] yk = yMu[k];
+        double[] wyk = weightedYMu[k];
+        for (int i = fromRow; i < toRow; i = i + 1) {
+          int row = i * p;
+          double wyki = wyk[i];
+          int to = Math.min(i + 1, toColumn);
+          for (int j = fromColumn; j < to; j = j + 1) {
+            updated[row + j] = updated[row + j] + wyki * yk[j];
+          }
+        }
+      }
+    }
+    for (int i = fromRow; i < toRow; i = i + 1) {
+      int row = i * p;
+      for (int j = 0; j < i; j = j + 1) {
+        updated[j * p + i] = updated[row + j];
+      }
+    }
   }
 }
@@ -0,0 +1,109 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.solver.es;
+
+import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
+import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
+import io.github.ericmedvet.jgea.core.solver.ListPopulationState;
+import io.github.ericmedvet.jgea.core.solver.State;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+// the part of the state shared by the strategies sampling from N(m, sigma^2 C): the population is kept in a plain
+// list population state and each strategy adds its own representation of C
+public interface GaussianESState<S, Q, T extends GaussianESState<S, Q, T>>
+    extends ListPopulationState<CMAESIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>> {
+
+  double[] means();
+
+  ListPopulationState<CMAESIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+      populationState();
+
+  double[] sEvolutionPath();
+
+  double sigma();
+
+  T updatedWith(
+      ListPopulationState<CMAESIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+          populationState,
+      double[] means,
+      double sigma,
+      double[] sEvolutionPath);
+
+  @Override
+  default long elapsedMillis() {
+    return populationState().elapsedMillis();
+  }
+
+  @Override
+  default List<CMAESIndividual<S, Q>> listPopulation() {
+    return populationState().listPopulation();
+  }
+
+  @Override
+  default long nOfBirths() {
+    return populationState().nOfBirths();
+  }
+
+  @Override
+  default long nOfIterations() {
+    return populationState().nOfIterations();
+  }
+
+  @Override
+  default long nOfQualityEvaluations() {
+    return populationState().nOfQualityEvaluations();
+  }
+
+  @Override
+  default PartiallyOrderedCollection<CMAESIndividual<S, Q>> pocPopulation() {
+    return populationState().pocPopulation();
+  }
+
+  @Override
+  default TotalOrderQualityBasedProblem<S, Q> problem() {
+    return populationState().problem();
+  }
+
+  @Override
+  default LocalDateTime startingDateTime() {
+    return populationState().startingDateTime();
+  }
+
+  @Override
+  default Predicate<State<?, ?>> stopCondition() {
+    return populationState().stopCondition();
+  }
+
+  default T updatedWithIteration(Collection<CMAESIndividual<S, Q>> listPopulation) {
+    return updatedWith(
+        populationState().updatedWithIteration(listPopulation.size(), listPopulation.size(), listPopulation),
+        means(),
+        sigma(),
+        sEvolutionPath());
+  }
+
+  @Override
+  default T updatedWithProblem(TotalOrderQualityBasedProblem<S, Q> problem) {
+    return updatedWith(populationState().updatedWithProblem(problem), means(), sigma(), sEvolutionPath());
+  }
+}
@@ -0,0 +1,78 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.solver.es;
+
+import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
+import io.github.ericmedvet.jgea.core.solver.ListPopulationState;
+import io.github.ericmedvet.jgea.core.solver.State;
+import java.util.List;
+import java.util.function.Predicate;
+
+public interface LMMAESState<S, Q> extends GaussianESState<S, Q, LMMAESState<S, Q>> {
+
+  // the m direction vectors of the limited-memory transformation
+  double[][] directions();
+
+  static <S, Q> LMMAESState<S, Q> empty(
+      TotalOrderQualityBasedProblem<S, Q> problem,
+      Predicate<State<?, ?>> stopCondition,
+      double[] means,
+      int nOfDirections) {
+    return of(
+        ListPopulationState.empty(problem, stopCondition),
+        means,
+        0.5,
+        new double[means.length],
+        new double[nOfDirections][means.length]);
+  }
+
+  static <S, Q> LMMAESState<S, Q> of(
+      ListPopulationState<CMAESIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+          populationState,
+      double[] means,
+      double sigma,
+      double[] sEvolutionPath,
+      double[][] directions) {
+    record HardState<S, Q>(
+        ListPopulationState<CMAESIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+            populationState,
+        double[] means,
+        double sigma,
+        double[] sEvolutionPath,
+        double[][] directions)
+        implements LMMAESState<S, Q> {
+      @Override
+      public LMMAESState<S, Q> updatedWith(
+          ListPopulationState<CMAESIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+              populationState,
+          double[] means,
+          double sigma,
+          double[] sEvolutionPath) {
+        return new HardState<>(populationState, means, sigma, sEvolutionPath, directions);
+      }
+    }
+    return new HardState<>(populationState, means, sigma, sEvolutionPath, directions);
+  }
+
+  default LMMAESState<S, Q> updatedWithPaths(
+      double[] means, double sigma, double[] sEvolutionPath, double[][] directions) {
+    return of(populationState(), means, sigma, sEvolutionPath, directions);
+  }
+}
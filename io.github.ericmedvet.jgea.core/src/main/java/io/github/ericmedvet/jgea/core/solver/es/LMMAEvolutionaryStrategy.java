@@ -0,0 +1,97 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.solver.es;
+
+import static io.github.ericmedvet.jgea.core.util.VectorUtils.*;
+
+import io.github.ericmedvet.jgea.core.Factory;
+import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+// source -> https://doi.org/10.1109/TEVC.2018.2855049
+// limited-memory matrix adaptation: the covariance is implicitly represented by m direction vectors, hence memory and
+// time per sample are O(m p)
+
+public class LMMAEvolutionaryStrategy<S, Q> extends AbstractGaussianEvolutionaryStrategy<LMMAESState<S, Q>, S, Q> {
+
+  private final double cSigma;
+  private final double[] cd;
+  private final double[] cc;
+  private final int nOfDirections;
+
+  public LMMAEvolutionaryStrategy(
+      Function<? super List<Double>, ? extends S> solutionMapper,
+      Factory<? extends List<Double>> genotypeFactory,
+      Predicate<? super LMMAESState<S, Q>> stopCondition) {
+    super(solutionMapper, genotypeFactory, stopCondition);
+    // see algorithm 1 of the linked paper for parameters values; rates are capped at 1 for small p
+    nOfDirections = 4 + (int) Math.floor(3 * Math.log(p));
+    cSigma = Math.min(1d, 2d * populationSize / p);
+    cd = buildArray(nOfDirections, i -> Math.min(1d, 1d / (Math.pow(1.5, i) * p)));
+    cc = buildArray(nOfDirections, i -> Math.min(1d, populationSize / (Math.pow(4, i) * p)));
+  }
+
+  @Override
+  protected LMMAESState<S, Q> emptyState(TotalOrderQualityBasedProblem<S, Q> problem, double[] means) {
+    return LMMAESState.empty(problem, stopCondition(), means, nOfDirections);
+  }
+
+  @Override
+  protected double[] transformed(LMMAESState<S, Q> state, double[] z) {
+    double[] d = Arrays.copyOf(z, p);
+    int nOfActiveDirections = (int) Math.min(state.nOfIterations(), nOfDirections);
+    for (int j = 0; j < nOfActiveDirections; j++) {
+      double[] direction = state.directions()[j];
+      double dot = 0d;
+      for (int i = 0; i < p; i++) {
+        dot = dot + direction[i] * d[i];
+      }
+      for (int i = 0; i < p; i++) {
+        d[i] = (1 - cd[j]) * d[i] + cd[j] * direction[i] * dot;
+      }
+    }
+    return d;
+  }
+
+  @Override
+  protected LMMAESState<S, Q> updatedDistribution(
+      List<CMAESIndividual<S, Q>> bestIndividuals, LMMAESState<S, Q> state, ExecutorService executor) {
+    double[] dM = weightedMean(bestIndividuals, CMAESIndividual::y);
+    double[] zM = weightedMean(bestIndividuals, CMAESIndividual::z);
+    double[] means = sum(state.means(), mult(dM, state.sigma()));
+    double[] sEvolutionPath = buildArray(
+        p,
+        i -> (1d - cSigma) * state.sEvolutionPath()[i] + Math.sqrt(muEff * cSigma * (2d - cSigma)) * zM[i]);
+    double[][] directions = new double[nOfDirections][];
+    for (int j = 0; j < nOfDirections; j++) {
+      double[] direction = state.directions()[j];
+      double a = 1d - cc[j];
+      double b = Math.sqrt(muEff * cc[j] * (2d - cc[j]));
+      directions[j] = buildArray(p, i -> a * direction[i] + b * zM[i]);
+    }
+    double psSquaredNorm = Arrays.stream(sEvolutionPath).map(v -> v * v).sum();
+    double sigma = state.sigma() * Math.exp(cSigma / 2d * (psSquaredNorm / p - 1d));
+    return state.updatedWithPaths(means, sigma, sEvolutionPath, directions);
+  }
+}
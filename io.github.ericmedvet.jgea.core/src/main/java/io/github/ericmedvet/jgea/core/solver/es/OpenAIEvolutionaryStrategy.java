@@ -24,14 +24,17 @@ import static io.github.ericmedvet.jgea.core.util.VectorUtils.*;
 
 import io.github.ericmedvet.jgea.core.Factory;
 import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
-import io.github.ericmedvet.jgea.core.representation.sequence.FixedLengthListFactory;
 import io.github.ericmedvet.jgea.core.solver.AbstractPopulationBasedIterativeSolver;
 import io.github.ericmedvet.jgea.core.solver.Individual;
 import io.github.ericmedvet.jgea.core.solver.SolverException;
+import java.lang.ref.SoftReference;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
@@ -53,14 +56,16 @@ public class OpenAIEvolutionaryStrategy<S, Q>
         S,
         Q> {
 
+  // fixed, rather than set on the available processors, so that the floating point sum does not depend on the hardware
+  private static final int N_OF_NOISE_CHUNKS = 16;
+
   private final int batchSize;
+  private final double sigma;
   private final double stepSize;
   private final double beta1;
   private final double beta2;
   private final double epsilon;
 
-  private final FixedLengthListFactory<Double> gaussianSamplesFactory;
-
   public OpenAIEvolutionaryStrategy(
       Function<? super List<Double>, ? extends S> solutionMapper,
       Factory<? extends List<Double>> genotypeFactory,
@@ -73,12 +78,85 @@ public class OpenAIEvolutionaryStrategy<S, Q>
       double epsilon) {
     super(solutionMapper, genotypeFactory, stopCondition, false);
     this.batchSize = batchSize;
+    this.sigma = sigma;
     this.stepSize = stepSize;
     this.beta1 = beta1;
     this.beta2 = beta2;
     this.epsilon = epsilon;
-    int p = genotypeFactory.build(1, new Random(0)).getFirst().size();
-    gaussianSamplesFactory = new FixedLengthListFactory<>(p, r -> r.nextGaussian() * sigma);
+  }
+
+  // genotype center + scale * noise, with the noise regenerated from its seed when needed rather than stored
+  private static class PerturbedGenotype extends AbstractList<Double> {
+    private final double[] center;
+    private final long seed;
+    private final double scale;
+    // benign race: concurrent readers may both regenerate the values, which are deterministic given the seed, and
+    // the volatile write publishes only fully built arrays
+    private volatile SoftReference<double[]> values;
+
+    public PerturbedGenotype(double[] center, long seed, double scale) {
+      this.center = center;
+      this.seed = seed;
+      this.scale = scale;
+    }
+
+    @Override
+    public Double get(int index) {
+      return values()[index];
+    }
+
+    @Override
+    public int size() {
+      return center.length;
+    }
+
+    private double[] values() {
+      SoftReference<double[]> reference = values;
+      double[] vs = (reference == null) ? null : reference.get();
+      if (vs == null) {
+        vs = noise(seed, center.length);
+        for (int i = 0; i < vs.length; i = i + 1) {
+          vs[i] = center[i] + scale * vs[i];
+        }
+        values = new SoftReference<>(vs);
+      }
+      return vs;
+    }
+  }
+
+  private static double[] noise(long seed, int p) {
+    SplittableRandom random = new SplittableRandom(seed);
+    double[] noise = new double[p];
+    for (int i = 0; i < p; i = i + 1) {
+      noise[i] = random.nextGaussian();
+    }
+    return noise;
+  }
+
+  // sum_k weights[k] noise(seeds[k]), regenerating each noise vector while accumulating it, in chunks of seeds
+  private static double[] weightedNoiseSum(long[] seeds, double[] weights, int p, ExecutorService executor)
+      throws SolverException {
+    int nOfChunks = Math.min(seeds.length, N_OF_NOISE_CHUNKS);
+    List<Callable<double[]>> tasks = IntStream.range(0, nOfChunks)
+        .mapToObj(c -> (Callable<double[]>) () -> {
+          double[] partial = new double[p];
+          for (int k = c; k < seeds.length; k = k + nOfChunks) {
+            SplittableRandom random = new SplittableRandom(seeds[k]);
+            double w = weights[k];
+            for (int i = 0; i < p; i++) {
+              partial[i] = partial[i] + w * random.nextGaussian();
+            }
+          }
+          return partial;
+        })
+        .toList();
+    double[] sum = new double[p];
+    for (double[] partial : getAll(tasks, executor)) {
+      for (int i = 0; i < p; i++) {
+        sum[i] = sum[i] + partial[i];
+      }
+    }
+    return sum;
   }
 
   @Override
@@ -91,7 +169,7 @@ public class OpenAIEvolutionaryStrategy<S, Q>
         unboxed(genotypeFactory.build(1, random).getFirst()));
     AtomicLong counter = new AtomicLong(0);
     Collection<Individual<List<Double>, S, Q>> newIndividuals = getAll(map(
-        genotypeFactory.build(2 * batchSize, random).stream()
+        genotypeFactory.build(2 * batchSize, random, executor).stream()
             .map(g -> new ChildGenotype<List<Double>>(counter.getAndIncrement(), g, List.of()))
             .toList(),
         (cg, s, r) -> Individual.from(cg, solutionMapper, s.problem().qualityFunction(), s.nOfIterations()),
@@ -109,52 +187,60 @@ public class OpenAIEvolutionaryStrategy<S, Q>
   @Override
   public OpenAIESState<S, Q> update(RandomGenerator random, ExecutorService executor, OpenAIESState<S, Q> state)
       throws SolverException {
-    // produce noise vectors
-    List<List<Double>> samples = IntStream.range(0, batchSize)
-        .mapToObj(i -> gaussianSamplesFactory.build(random))
+    // produce antithetic pairs of genotypes, each pair sharing a noise seed
+    double[] center = state.center();
+    int p = center.length;
+    long[] seeds = new long[batchSize];
+    for (int k = 0; k < batchSize; k++) {
+      seeds[k] = random.nextLong();
+    }
+    List<List<Double>> genotypes = Stream.concat(
+            Arrays.stream(seeds).mapToObj(seed -> new PerturbedGenotype(center, seed, sigma)),
+            Arrays.stream(seeds).mapToObj(seed -> new PerturbedGenotype(center, seed, -sigma)))
+        .map(g -> (List<Double>) g)
         .toList();
     // evaluates scores (ie., map genotypes to individuals)
-    List<List<Double>> plusGenotypes =
-        samples.stream().map(s -> sum(s, state.center())).toList();
-    List<List<Double>> minusGenotypes =
-        samples.stream().map(s -> sum(mult(s, -1), state.center())).toList();
     AtomicLong counter = new AtomicLong(state.nOfBirths());
     List<Long> parentIds =
         state.listPopulation().stream().map(Individual::id).toList();
-    List<Individual<List<Double>, S, Q>> newIndividuals = getAll(map(
-            Stream.of(plusGenotypes, minusGenotypes).flatMap(List::stream).toList().stream()
-                .map(g -> new ChildGenotype<>(counter.getAndIncrement(), g, parentIds))
-                .toList(),
-            (cg, s, r) ->
-                Individual.from(cg, solutionMapper, s.problem().qualityFunction(), s.nOfIterations()),
-            state,
-            random,
-            executor))
-        .stream()
-        .toList();
-    // compute normalized ranks
+    List<Individual<List<Double>, S, Q>> newIndividuals = List.copyOf(getAll(map(
+        genotypes.stream()
+            .map(g -> new ChildGenotype<>(counter.getAndIncrement(), g, parentIds))
+            .toList(),
+        (cg, s, r) -> Individual.from(cg, solutionMapper, s.problem().qualityFunction(), s.nOfIterations()),
+        state,
+        random,
+        executor)));
+    // compute centered ranks: the best gets -0.5, the worst 0.5
+    int n = newIndividuals.size();
     Comparator<Integer> integerComparator = partialComparator(state.problem())
         .comparing(newIndividuals::get)
         .comparator();
-    List<Double> normalizedRanks = IntStream.range(0, newIndividuals.size())
-        .boxed()
-        .sorted(integerComparator)
-        .map(i -> (double) i / (double) (newIndividuals.size() - 1) - 0.5d)
-        .toList();
-    // compute estimated gradient
-    double[] g = unboxed(meanList(IntStream.range(0, normalizedRanks.size())
-        .mapToObj(i -> mult(diff(newIndividuals.get(i).genotype(), state.center()), normalizedRanks.get(i)))
-        .toList()));
+    Integer[] sortedIndexes = IntStream.range(0, n).boxed().sorted(integerComparator).toArray(Integer[]::new);
+    double[] centeredRanks = new double[n];
+    for (int r = 0; r < n; r++) {
+      centeredRanks[sortedIndexes[r]] = (double) r / (double) (n - 1) - 0.5d;
+    }
+    // compute estimated gradient: the mean of the ranks times the perturbations, folded on antithetic pairs
+    double[] weights = new double[batchSize];
+    for (int k = 0; k < batchSize; k++) {
+      weights[k] = (centeredRanks[k] - centeredRanks[k + batchSize]) * sigma / n;
+    }
+    double[] g = weightedNoiseSum(seeds, weights, p, executor);
     // optimize with adam (see https://en.wikipedia.org/wiki/Stochastic_gradient_descent#Adam)
-    double[] m = sum(mult(state.m(), beta1), mult(g, 1 - beta1));
-    double[] v = sum(mult(state.v(), beta2), mult(mult(g, g), 1d - beta2));
-    double[] hatM = mult(m, 1d / (1d - beta1));
-    double[] hatV = mult(v, 1d / (1d - beta2));
     double a = stepSize
         * Math.sqrt(1d - Math.pow(beta2, state.nOfIterations() + 1))
         / (1d - Math.pow(beta1, state.nOfIterations() + 1));
-    double[] dCenter = mult(div(hatM, sum(sqrt(hatV), epsilon)), -a);
-    double[] center = sum(state.center(), dCenter);
-    return state.updatedWithIteration(newIndividuals, center, m, v);
+    double[] m = new double[p];
+    double[] v = new double[p];
+    double[] newCenter = new double[p];
+    for (int i = 0; i < p; i++) {
+      m[i] = state.m()[i] * beta1 + g[i] * (1 - beta1);
+      v[i] = state.v()[i] * beta2 + g[i] * g[i] * (1d - beta2);
+      double hatM = m[i] / (1d - beta1);
+      double hatV = v[i] / (1d - beta2);
+      newCenter[i] = center[i] - a * hatM / (Math.sqrt(hatV) + epsilon);
+    }
+    return state.updatedWithIteration(newIndividuals, newCenter, m, v);
   }
 }
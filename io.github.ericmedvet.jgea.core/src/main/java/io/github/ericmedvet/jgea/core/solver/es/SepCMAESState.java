@@ -0,0 +1,81 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.solver.es;
+
+import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
+import io.github.ericmedvet.jgea.core.solver.ListPopulationState;
+import io.github.ericmedvet.jgea.core.solver.State;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+public interface SepCMAESState<S, Q> extends GaussianESState<S, Q, SepCMAESState<S, Q>> {
+
+  double[] cEvolutionPath();
+
+  // diagonal of the covariance matrix
+  double[] variances();
+
+  static <S, Q> SepCMAESState<S, Q> empty(
+      TotalOrderQualityBasedProblem<S, Q> problem, Predicate<State<?, ?>> stopCondition, double[] means) {
+    return of(
+        ListPopulationState.empty(problem, stopCondition),
+        means,
+        0.5,
+        new double[means.length],
+        new double[means.length],
+        Arrays.stream(means).map(m -> 1d).toArray());
+  }
+
+  static <S, Q> SepCMAESState<S, Q> of(
+      ListPopulationState<CMAESIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+          populationState,
+      double[] means,
+      double sigma,
+      double[] sEvolutionPath,
+      double[] cEvolutionPath,
+      double[] variances) {
+    record HardState<S, Q>(
+        ListPopulationState<CMAESIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+            populationState,
+        double[] means,
+        double sigma,
+        double[] sEvolutionPath,
+        double[] cEvolutionPath,
+        double[] variances)
+        implements SepCMAESState<S, Q> {
+      @Override
+      public SepCMAESState<S, Q> updatedWith(
+          ListPopulationState<CMAESIndividual<S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
+              populationState,
+          double[] means,
+          double sigma,
+          double[] sEvolutionPath) {
+        return new HardState<>(populationState, means, sigma, sEvolutionPath, cEvolutionPath, variances);
+      }
+    }
+    return new HardState<>(populationState, means, sigma, sEvolutionPath, cEvolutionPath, variances);
+  }
+
+  default SepCMAESState<S, Q> updatedWithPaths(
+      double[] means, double sigma, double[] sEvolutionPath, double[] cEvolutionPath, double[] variances) {
+    return of(populationState(), means, sigma, sEvolutionPath, cEvolutionPath, variances);
+  }
+}
@@ -0,0 +1,116 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.solver.es;
+
+import static io.github.ericmedvet.jgea.core.util.VectorUtils.*;
+
+import io.github.ericmedvet.jgea.core.Factory;
+import io.github.ericmedvet.jgea.core.problem.TotalOrderQualityBasedProblem;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+// source -> https://doi.org/10.1007/978-3-540-87700-4_30
+// CMA-ES with a diagonal covariance matrix: memory and time per sample are linear in p
+
+public class SepCMAEvolutionaryStrategy<S, Q>
+    extends AbstractGaussianEvolutionaryStrategy<SepCMAESState<S, Q>, S, Q> {
+
+  private static final Logger L = Logger.getLogger(SepCMAEvolutionaryStrategy.class.getName());
+  private final double cSigma;
+  private final double dSigma;
+  private final double cc;
+  private final double c1;
+  private final double cMu;
+  private final double chiN;
+
+  public SepCMAEvolutionaryStrategy(
+      Function<? super List<Double>, ? extends S> solutionMapper,
+      Factory<? extends List<Double>> genotypeFactory,
+      Predicate<? super SepCMAESState<S, Q>> stopCondition) {
+    super(solutionMapper, genotypeFactory, stopCondition);
+    chiN = Math.sqrt(p) * (1d - 1d / (4d * (double) p) + 1d / (21d * Math.pow(p, 2)));
+    // step size control
+    cSigma = (muEff + 2) / (p + muEff + 5);
+    dSigma = 1 + 2 * Math.max(0, Math.sqrt((muEff - 1) / (p + 1d)) - 1) + cSigma;
+    // learning rates of the full CMA-ES, scaled up since the diagonal has only p degrees of freedom
+    cc = (4d + muEff / p) / (p + 4d + 2 * muEff / p);
+    c1 = Math.min(1, 2 / (Math.pow((p + 1.3), 2) + muEff) * (p + 2) / 3d);
+    cMu = Math.min(
+        1 - c1, 2 * (muEff - 2 + 1 / muEff) / (Math.pow((p + 2), 2) + 2 * muEff / 2d) * (p + 2) / 3d);
+  }
+
+  @Override
+  protected SepCMAESState<S, Q> emptyState(TotalOrderQualityBasedProblem<S, Q> problem, double[] means) {
+    return SepCMAESState.empty(problem, stopCondition(), means);
+  }
+
+  @Override
+  protected double[] transformed(SepCMAESState<S, Q> state, double[] z) {
+    double[] variances = state.variances();
+    return buildArray(p, i -> Math.sqrt(variances[i]) * z[i]);
+  }
+
+  @Override
+  protected SepCMAESState<S, Q> updatedDistribution(
+      List<CMAESIndividual<S, Q>> bestIndividuals, SepCMAESState<S, Q> state, ExecutorService executor) {
+    // best mu ranked points
+    double[][] yMu = new double[mu][];
+    for (int i = 0; i < mu; i++) {
+      yMu[i] = bestIndividuals.get(i).y();
+    }
+    // selection and recombination
+    double[] updatedDistributionMeans = weightedMean(bestIndividuals, CMAESIndividual::x);
+    double[] yW = mult(diff(updatedDistributionMeans, state.means()), 1d / state.sigma());
+    // step size control: with a diagonal covariance, C^-1/2 y is z
+    double[] zM = weightedMean(bestIndividuals, CMAESIndividual::z);
+    double[] sEvolutionPath = buildArray(
+        p,
+        i -> (1d - cSigma) * state.sEvolutionPath()[i] + (Math.sqrt(cSigma * (2d - cSigma) * muEff)) * zM[i]);
+    double psNorm = norm(sEvolutionPath, 2d);
+    double sigma = state.sigma() * Math.exp((cSigma / dSigma) * ((psNorm / chiN) - 1));
+    // check flat fitness
+    if (state.pocPopulation().firsts().size() >= Math.ceil(0.7 * populationSize)) {
+      sigma *= Math.exp(0.2 + cSigma / dSigma);
+      L.warning("Flat fitness, consider reformulating the objective");
+    }
+    // covariance matrix adaptation, on the diagonal only
+    int hSigma =
+        psNorm / Math.sqrt(1 - Math.pow((1d - cSigma), 2 * state.nOfIterations())) / chiN < (1.4 + 2d / (p + 1))
+            ? 1
+            : 0;
+    double[] cEvolutionPath = buildArray(
+        p, i -> (1 - cc) * state.cEvolutionPath()[i] + hSigma * Math.sqrt(cc * (2 - cc) * muEff) * yW[i]);
+    double deltaH = (1 - hSigma) * cc * (2 - cc);
+    double decay = 1 + c1 * deltaH - c1 - cMu;
+    double[] variances = new double[p];
+    for (int i = 0; i < p; i++) {
+      double rankMu = 0d;
+      for (int k = 0; k < mu; k++) {
+        rankMu = rankMu + weights[k] * yMu[k][i] * yMu[k][i];
+      }
+      variances[i] =
+          decay * state.variances()[i] + c1 * cEvolutionPath[i] * cEvolutionPath[i] + cMu * rankMu;
+    }
+    return state.updatedWithPaths(updatedDistributionMeans, sigma, sEvolutionPath, cEvolutionPath, variances);
+  }
+}
@@ -85,7 +85,7 @@ public class SimpleEvolutionaryStrategy<S, Q>
     ListPopulationState<Individual<List<Double>, S, Q>, List<Double>, S, Q, TotalOrderQualityBasedProblem<S, Q>>
         newState = ListPopulationState.empty(problem, stopCondition());
     AtomicLong counter = new AtomicLong(0);
-    List<? extends List<Double>> genotypes = genotypeFactory.build(populationSize, random);
+    List<? extends List<Double>> genotypes = genotypeFactory.build(populationSize, random, executor);
     Collection<Individual<List<Double>, S, Q>> newIndividuals = getAll(map(
         genotypes.stream()
             .map(g -> new ChildGenotype<List<Double>>(counter.getAndIncrement(), g, List.of()))
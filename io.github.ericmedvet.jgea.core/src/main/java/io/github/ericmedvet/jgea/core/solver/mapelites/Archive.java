@@ -20,26 +20,57 @@
 package io.github.ericmedvet.jgea.core.solver.mapelites;
 
 import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.function.Function;
 
 /** @author "Eric Medvet" on 2024/05/31 for jgea */
 public class Archive<T> {
 
+  private static final int CHUNK_SIZE = 1024;
+
   private final List<Integer> binUpperBounds;
-  private final Map<List<Integer>, T> map;
+  private final int[] strides;
+  private final int capacity;
+  private final int nOfCells;
+  // cells are linearized and stored in chunks, which are shared among copies and copied on the first write
+  private final Object[][] chunks;
+  private final boolean[] ownedChunks;
+  private int[] occupiedIndexes;
+  private boolean ownedOccupiedIndexes;
+  private int nOfOccupied;
 
   public Archive(List<Integer> binUpperBounds) {
     this.binUpperBounds = binUpperBounds;
-    map = new LinkedHashMap<>();
+    strides = strides(binUpperBounds);
+    nOfCells = nOfCells(binUpperBounds);
+    capacity = binUpperBounds.isEmpty() ? 0 : nOfCells;
+    chunks = new Object[(nOfCells + CHUNK_SIZE - 1) / CHUNK_SIZE][];
+    ownedChunks = new boolean[chunks.length];
+    occupiedIndexes = new int[0];
+    ownedOccupiedIndexes = true;
   }
 
   public Archive(Archive<T> archive) {
-    this(archive.binUpperBounds);
-    map.putAll(archive.map);
+    binUpperBounds = archive.binUpperBounds;
+    strides = archive.strides;
+    capacity = archive.capacity;
+    nOfCells = archive.nOfCells;
+    chunks = archive.chunks.clone();
+    ownedChunks = new boolean[chunks.length];
+    Arrays.fill(archive.ownedChunks, false);
+    occupiedIndexes = archive.occupiedIndexes;
+    ownedOccupiedIndexes = false;
+    archive.ownedOccupiedIndexes = false;
+    nOfOccupied = archive.nOfOccupied;
   }
 
   public Archive(
@@ -51,6 +82,143 @@ public class Archive<T> {
     ts.forEach(t -> put(binsF.apply(t), t, partialComparator));
   }
 
+  private class MapView extends AbstractMap<List<Integer>, T> {
+
+    private final List<T> values = new AbstractList<>() {
+      @Override
+      public T get(int index) {
+        return cell(occupiedIndexes[index]);
+      }
+
+      @Override
+      public int size() {
+        return nOfOccupied;
+      }
+    };
+
+    @Override
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<List<Integer>, T>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<List<Integer>, T>> iterator() {
+          return new Iterator<>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+              return i < nOfOccupied;
+            }
+
+            @Override
+            public Entry<List<Integer>, T> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              int index = occupiedIndexes[i];
+              i = i + 1;
+              return new SimpleImmutableEntry<>(bins(index, strides), cell(index));
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return nOfOccupied;
+        }
+      };
+    }
+
+    @Override
+    public T get(Object key) {
+      if (!(key instanceof List<?> list) || list.size() != strides.length) {
+        return null;
+      }
+      int index = 0;
+      for (int i = 0; i < strides.length; i++) {
+        if (!(list.get(i) instanceof Integer bin) || bin < 0 || bin >= binUpperBounds.get(i)) {
+          return null;
+        }
+        index = index + bin * strides[i];
+      }
+      return cell(index);
+    }
+
+    @Override
+    public int size() {
+      return nOfOccupied;
+    }
+
+    @Override
+    public Collection<T> values() {
+      return values;
+    }
+  }
+
+  static int[] strides(List<Integer> binUpperBounds) {
+    int[] strides = new int[binUpperBounds.size()];
+    long product = 1;
+    for (int i = binUpperBounds.size() - 1; i >= 0; i--) {
+      if (binUpperBounds.get(i) <= 0) {
+        throw new IllegalArgumentException("Invalid number of bins: %d".formatted(binUpperBounds.get(i)));
+      }
+      strides[i] = (int) product;
+      product = product * binUpperBounds.get(i);
+      if (product > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Too many bins: %s".formatted(binUpperBounds));
+      }
+    }
+    return strides;
+  }
+
+  static int nOfCells(List<Integer> binUpperBounds) {
+    return binUpperBounds.stream().mapToInt(i -> i).reduce(1, (i1, i2) -> i1 * i2);
+  }
+
+  static int index(List<Integer> bins, List<Integer> binUpperBounds, int[] strides) {
+    if (bins.size() != strides.length) {
+      throw new IllegalArgumentException(
+          "Wrong number of bins: %d expected, %d found".formatted(strides.length, bins.size()));
+    }
+    int index = 0;
+    for (int i = 0; i < strides.length; i++) {
+      int bin = Math.max(0, Math.min(bins.get(i), binUpperBounds.get(i) - 1));
+      index = index + bin * strides[i];
+    }
+    return index;
+  }
+
+  static List<Integer> bins(int index, int[] strides) {
+    Integer[] bins = new Integer[strides.length];
+    for (int i = 0; i < strides.length; i++) {
+      bins[i] = index / strides[i];
+      index = index % strides[i];
+    }
+    return List.of(bins);
+  }
+
+  @SuppressWarnings("unchecked")
+  private T cell(int index) {
+    Object[] chunk = chunks[index / CHUNK_SIZE];
+    return chunk == null ? null : (T) chunk[index % CHUNK_SIZE];
+  }
+
+  private void setCell(int index, T t) {
+    int chunkIndex = index / CHUNK_SIZE;
+    if (chunks[chunkIndex] == null) {
+      chunks[chunkIndex] = new Object[CHUNK_SIZE];
+      ownedChunks[chunkIndex] = true;
+    } else if (!ownedChunks[chunkIndex]) {
+      chunks[chunkIndex] = chunks[chunkIndex].clone();
+      ownedChunks[chunkIndex] = true;
+    }
+    chunks[chunkIndex][index % CHUNK_SIZE] = t;
+  }
+
   public Archive<T> updated(
       Collection<T> ts,
       Function<? super T, ? extends List<Integer>> binsF,
@@ -59,16 +227,26 @@ public class Archive<T> {
   }
 
   public T get(List<Integer> bins) {
-    return map.get(bins);
+    return cell(index(bins, binUpperBounds, strides));
   }
 
   public void put(List<Integer> bins, T t, PartialComparator<? super T> partialComparator) {
-    T otherT = map.get(bins);
+    int index = index(bins, binUpperBounds, strides);
+    T otherT = cell(index);
     if (otherT == null) {
-      map.put(bins, t);
+      setCell(index, t);
+      if (!ownedOccupiedIndexes || nOfOccupied == occupiedIndexes.length) {
+        int length = nOfOccupied < occupiedIndexes.length
+            ? occupiedIndexes.length
+            : Math.min(nOfCells, Math.max(nOfOccupied + 1, nOfOccupied * 2));
+        occupiedIndexes = Arrays.copyOf(occupiedIndexes, length);
+        ownedOccupiedIndexes = true;
+      }
+      occupiedIndexes[nOfOccupied] = index;
+      nOfOccupied = nOfOccupied + 1;
     } else {
       if (partialComparator.compare(t, otherT).equals(PartialComparator.PartialComparatorOutcome.BEFORE)) {
-        map.put(bins, t);
+        setCell(index, t);
       }
     }
   }
@@ -78,13 +256,10 @@ public class Archive<T> {
   }
 
   public Map<List<Integer>, T> asMap() {
-    return map;
+    return new MapView();
   }
 
   public int capacity() {
-    return binUpperBounds().stream()
-        .mapToInt(i -> i)
-        .reduce((i1, i2) -> i1 * i2)
-        .orElse(0);
+    return capacity;
   }
 }
@@ -0,0 +1,167 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.solver.mapelites;
+
+import io.github.ericmedvet.jgea.core.Factory;
+import io.github.ericmedvet.jgea.core.listener.Listener;
+import io.github.ericmedvet.jgea.core.operator.Mutation;
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
+import io.github.ericmedvet.jgea.core.solver.Individual;
+import io.github.ericmedvet.jgea.core.solver.SolverException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.random.RandomGenerator;
+
+public class AsyncMapElites<G, S, Q> extends MapElites<G, S, Q> {
+
+  private final int nOfWorkers;
+
+  public AsyncMapElites(
+      Function<? super G, ? extends S> solutionMapper,
+      Factory<? extends G> genotypeFactory,
+      Predicate<? super MEPopulationState<G, S, Q, QualityBasedProblem<S, Q>>> stopCondition,
+      Mutation<G> mutation,
+      int populationSize,
+      List<Descriptor<G, S, Q>> descriptors,
+      int nOfWorkers) {
+    super(solutionMapper, genotypeFactory, stopCondition, mutation, populationSize, descriptors);
+    if (nOfWorkers <= 0) {
+      throw new IllegalArgumentException("Invalid number of workers: %d".formatted(nOfWorkers));
+    }
+    this.nOfWorkers = nOfWorkers;
+  }
+
+  private class Worker implements Runnable {
+    private final ConcurrentArchive<MEIndividual<G, S, Q>> archive;
+    private final QualityBasedProblem<S, Q> problem;
+    private final PartialComparator<? super MEIndividual<G, S, Q>> partialComparator;
+    private final RandomGenerator random;
+    private final AtomicLong counter;
+    private final AtomicLong iterations;
+    private final AtomicLong nOfBirths;
+    private final Semaphore births;
+    private volatile boolean stopped;
+
+    private Worker(
+        ConcurrentArchive<MEIndividual<G, S, Q>> archive,
+        QualityBasedProblem<S, Q> problem,
+        RandomGenerator random,
+        AtomicLong counter,
+        AtomicLong iterations,
+        AtomicLong nOfBirths,
+        Semaphore births) {
+      this.archive = archive;
+      this.problem = problem;
+      this.random = random;
+      this.counter = counter;
+      this.iterations = iterations;
+      this.nOfBirths = nOfBirths;
+      this.births = births;
+      partialComparator = partialComparator(problem);
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (!stopped) {
+          MEIndividual<G, S, Q> parent = archive.pickRandomly(random);
+          ChildGenotype<G> childGenotype = new ChildGenotype<>(
+              counter.getAndIncrement(), mutation.mutate(parent.genotype(), random), List.of(parent.id()));
+          MEIndividual<G, S, Q> child = MEIndividual.from(
+              Individual.from(childGenotype, solutionMapper, problem.qualityFunction(), iterations.get()),
+              descriptors);
+          archive.put(bins(child), child, partialComparator);
+          nOfBirths.incrementAndGet();
+          births.release();
+        }
+      } finally {
+        // wakes up the main thread also when this worker fails
+        stopped = true;
+        births.release(populationSize);
+      }
+    }
+  }
+
+  @Override
+  public Collection<S> solve(
+      QualityBasedProblem<S, Q> problem,
+      RandomGenerator random,
+      ExecutorService executor,
+      Listener<? super MEPopulationState<G, S, Q, QualityBasedProblem<S, Q>>> listener)
+      throws SolverException {
+    MEPopulationState<G, S, Q, QualityBasedProblem<S, Q>> state = init(problem, random, executor);
+    listener.listen(state);
+    if (terminate(random, executor, state)) {
+      listener.done();
+      return extractSolutions(problem, random, executor, state);
+    }
+    ConcurrentArchive<MEIndividual<G, S, Q>> archive = new ConcurrentArchive<>(state.mapOfElites());
+    AtomicLong counter = new AtomicLong(state.nOfBirths());
+    AtomicLong iterations = new AtomicLong(state.nOfIterations());
+    AtomicLong nOfBirths = new AtomicLong(state.nOfBirths());
+    Semaphore births = new Semaphore(0);
+    List<Worker> workers = new ArrayList<>(nOfWorkers);
+    List<Future<?>> futures = new ArrayList<>(nOfWorkers);
+    for (int i = 0; i < nOfWorkers; i++) {
+      Worker worker = new Worker(
+          archive, problem, new Random(random.nextLong()), counter, iterations, nOfBirths, births);
+      workers.add(worker);
+      futures.add(executor.submit(worker));
+    }
+    try {
+      // publish a snapshot every populationSize births, while workers keep going
+      long lastNOfBirths = state.nOfBirths();
+      while (!terminate(random, executor, state)) {
+        births.acquire(populationSize);
+        if (workers.stream().anyMatch(w -> w.stopped)) {
+          break;
+        }
+        long nOfNewBirths = nOfBirths.get() - lastNOfBirths;
+        lastNOfBirths = lastNOfBirths + nOfNewBirths;
+        state = state.updatedWithIteration(nOfNewBirths, nOfNewBirths, archive.snapshot());
+        iterations.set(state.nOfIterations());
+        listener.listen(state);
+      }
+    } catch (InterruptedException e) {
+      throw new SolverException(e);
+    } finally {
+      workers.forEach(w -> w.stopped = true);
+    }
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException | ExecutionException e) {
+        throw new SolverException(e);
+      }
+    }
+    listener.done();
+    return extractSolutions(problem, random, executor, state);
+  }
+}
@@ -36,7 +36,7 @@ public interface CoMEPartialIndividual<GT, ST, G1, G2, S1, S2, S, Q> extends MEI
         individual.genotypeBirthIteration(),
         individual.qualityMappingIteration(),
         individual.parentIds(),
-        descriptors.stream().map(d -> d.coordinate(individual)).toList(),
+        MapElites.Descriptor.coordinates(descriptors, individual),
         null);
   }
 
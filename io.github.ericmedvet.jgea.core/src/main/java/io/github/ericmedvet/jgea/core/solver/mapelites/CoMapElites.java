@@ -20,23 +20,27 @@
 package io.github.ericmedvet.jgea.core.solver.mapelites;
 
 import io.github.ericmedvet.jgea.core.Factory;
-import io.github.ericmedvet.jgea.core.distance.Distance;
 import io.github.ericmedvet.jgea.core.operator.Mutation;
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
 import io.github.ericmedvet.jgea.core.order.PartiallyOrderedCollection;
 import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
 import io.github.ericmedvet.jgea.core.solver.AbstractPopulationBasedIterativeSolver;
 import io.github.ericmedvet.jgea.core.solver.Individual;
 import io.github.ericmedvet.jgea.core.solver.SolverException;
 import io.github.ericmedvet.jgea.core.solver.mapelites.strategy.CoMEStrategy;
+import io.github.ericmedvet.jgea.core.util.KdTree;
 import io.github.ericmedvet.jgea.core.util.Misc;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jnb.datastructure.Pair;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -68,6 +72,7 @@ public class CoMapElites<G1, G2, S1, S2, S, Q>
   private final int nOfOffspring;
   private final Supplier<CoMEStrategy> strategySupplier;
   private final double neighborRadius;
+  private final boolean earlyStop;
 
   public CoMapElites(
       Predicate<? super CoMEPopulationState<G1, G2, S1, S2, S, Q, QualityBasedProblem<S, Q>>> stopCondition,
@@ -83,7 +88,8 @@ public class CoMapElites<G1, G2, S1, S2, S, Q>
       int populationSize,
       int nOfOffspring,
       Supplier<CoMEStrategy> strategySupplier,
-      double neighborRadius) {
+      double neighborRadius,
+      boolean earlyStop) {
     super(null, null, stopCondition, false);
     this.genotypeFactory1 = genotypeFactory1;
     this.genotypeFactory2 = genotypeFactory2;
@@ -98,12 +104,46 @@ public class CoMapElites<G1, G2, S1, S2, S, Q>
     this.nOfOffspring = nOfOffspring;
     this.strategySupplier = strategySupplier;
     this.neighborRadius = neighborRadius;
+    this.earlyStop = earlyStop;
     if (descriptors1.size() != descriptors2.size()) {
       throw new IllegalArgumentException("Unexpected different sizes of descriptors: %d vs. %d"
           .formatted(descriptors1.size(), descriptors2.size()));
     }
   }
 
+  public CoMapElites(
+      Predicate<? super CoMEPopulationState<G1, G2, S1, S2, S, Q, QualityBasedProblem<S, Q>>> stopCondition,
+      Factory<? extends G1> genotypeFactory1,
+      Factory<? extends G2> genotypeFactory2,
+      Function<? super G1, ? extends S1> solutionMapper1,
+      Function<? super G2, ? extends S2> solutionMapper2,
+      BiFunction<? super S1, ? super S2, ? extends S> solutionMerger,
+      List<MapElites.Descriptor<G1, S1, Q>> descriptors1,
+      List<MapElites.Descriptor<G2, S2, Q>> descriptors2,
+      Mutation<G1> mutation1,
+      Mutation<G2> mutation2,
+      int populationSize,
+      int nOfOffspring,
+      Supplier<CoMEStrategy> strategySupplier,
+      double neighborRadius) {
+    this(
+        stopCondition,
+        genotypeFactory1,
+        genotypeFactory2,
+        solutionMapper1,
+        solutionMapper2,
+        solutionMerger,
+        descriptors1,
+        descriptors2,
+        mutation1,
+        mutation2,
+        populationSize,
+        nOfOffspring,
+        strategySupplier,
+        neighborRadius,
+        false);
+  }
+
   public static List<Integer> denormalizeCoords(
       List<Double> coordinates, List<? extends MapElites.Descriptor<?, ?, ?>> descriptors) {
     if (coordinates.size() != descriptors.size()) {
@@ -117,33 +157,32 @@ public class CoMapElites<G1, G2, S1, S2, S, Q>
         .toList();
   }
 
-  private static double euclideanDistance(List<Integer> coords1, List<Integer> coords2) {
-    if (coords1.size() != coords2.size()) {
-      throw new IllegalArgumentException("Coordinates must have the same dimensions.");
+  // spatial index over the occupied cells of an archive, for nearest-cell and radius queries on bin coordinates
+  private record CellIndex<X>(List<List<Integer>> cells, List<X> values, KdTree tree) {
+    static <X> CellIndex<X> of(Map<List<Integer>, X> mapOfElites) {
+      List<List<Integer>> cells = new ArrayList<>(mapOfElites.size());
+      List<X> values = new ArrayList<>(mapOfElites.size());
+      mapOfElites.forEach((k, v) -> {
+        cells.add(k);
+        values.add(v);
+      });
+      return new CellIndex<>(
+          cells, values, new KdTree(cells.stream().map(CellIndex::toArray).toArray(double[][]::new)));
     }
-    double sum = 0.0;
-    for (int i = 0; i < coords1.size(); i++) {
-      double diff = coords1.get(i) - coords2.get(i);
-      sum += diff * diff;
+
+    private static double[] toArray(List<Integer> coords) {
+      return coords.stream().mapToDouble(Integer::doubleValue).toArray();
     }
-    return Math.sqrt(sum);
-  }
 
-  private static <X> Collection<X> findNeighbors(
-      List<Integer> coords,
-      Map<List<Integer>, X> mapOfElites,
-      Distance<List<Integer>> distance,
-      double neighborRadius) {
-    return mapOfElites.entrySet().stream()
-        .filter(e -> distance.apply(e.getKey(), coords) < neighborRadius)
-        .map(Map.Entry::getValue)
-        .toList();
-  }
+    List<Integer> closest(List<Integer> coords) {
+      return cells.get(tree.nearest(toArray(coords)));
+    }
 
-  private static List<Integer> getClosestCoordinate(List<Integer> coords, Map<List<Integer>, ?> mapOfElites) {
-    return mapOfElites.keySet().stream()
-        .min(Comparator.comparingDouble(c -> euclideanDistance(c, coords)))
-        .orElseThrow();
+    List<X> neighbors(List<Integer> coords, double radius) {
+      return Arrays.stream(tree.within(toArray(coords), radius))
+          .mapToObj(values::get)
+          .toList();
+    }
   }
 
   public static List<Double> normalizeCoords(
@@ -157,25 +196,23 @@ public class CoMapElites<G1, G2, S1, S2, S, Q>
         .toList();
   }
 
-  private static <GT, GO, ST, SO, S, Q>
-      Callable<
-              Pair<
-                  CoMEPartialIndividual<GT, ST, GT, GO, ST, SO, S, Q>,
-                  List<CoMEIndividual<GT, GO, ST, SO, S, Q>>>>
-          reproduceCallable(
-              Archive<? extends MEIndividual<GT, ST, Q>> thisArchive,
-              Archive<? extends MEIndividual<GO, SO, Q>> otherArchive,
-              Mutation<GT> mutation,
-              Function<? super GT, ? extends ST> solutionMapper,
-              BiFunction<? super ST, ? super SO, ? extends S> solutionMerger,
-              List<MapElites.Descriptor<GT, ST, Q>> thisDescriptors,
-              List<MapElites.Descriptor<GO, SO, Q>> otherDescriptors,
-              CoMEStrategy strategy,
-              double neighborRadius,
-              QualityBasedProblem<S, Q> problem,
-              RandomGenerator random,
-              long iteration,
-              AtomicLong counter) {
+  private record Reproduction<GT, GO, ST, SO, S, Q>(
+      CoMEPartialIndividual<GT, ST, GT, GO, ST, SO, S, Q> child,
+      List<? extends MEIndividual<GO, SO, Q>> collaborators,
+      Q eliteQuality) {}
+
+  private static <GT, GO, ST, SO, S, Q> Callable<Reproduction<GT, GO, ST, SO, S, Q>> childCallable(
+      Archive<? extends MEIndividual<GT, ST, Q>> thisArchive,
+      CellIndex<? extends MEIndividual<GO, SO, Q>> otherCellIndex,
+      Mutation<GT> mutation,
+      Function<? super GT, ? extends ST> solutionMapper,
+      List<MapElites.Descriptor<GT, ST, Q>> thisDescriptors,
+      List<MapElites.Descriptor<GO, SO, Q>> otherDescriptors,
+      CoMEStrategy strategy,
+      double neighborRadius,
+      RandomGenerator random,
+      long iteration,
+      AtomicLong counter) {
     return () -> {
       MEIndividual<GT, ST, Q> parentT =
           Misc.pickRandomly(thisArchive.asMap().values(), random);
@@ -188,23 +225,60 @@ public class CoMapElites<G1, G2, S1, S2, S, Q>
           .toList();
       List<Integer> otherCoords = denormalizeCoords(
           strategy.getOtherCoords(normalizeCoords(thisCoords, thisDescriptors)), otherDescriptors);
-      otherCoords = getClosestCoordinate(otherCoords, otherArchive.asMap());
-      Collection<? extends MEIndividual<GO, SO, Q>> neighbors =
-          findNeighbors(otherCoords, otherArchive.asMap(), CoMapElites::euclideanDistance, neighborRadius);
-      List<CoMEIndividual<GT, GO, ST, SO, S, Q>> localCompositeIndividuals = neighbors.stream()
-          .map(iO -> {
-            S s = solutionMerger.apply(iT.solution(), iO.solution());
-            return CoMEIndividual.of(
-                counter.getAndIncrement(),
-                s,
-                problem.qualityFunction().apply(s),
-                iteration,
-                iteration,
-                List.of(),
-                iT,
-                iO);
-          })
-          .toList();
+      otherCoords = otherCellIndex.closest(otherCoords);
+      MEIndividual<GT, ST, Q> elite = thisArchive.get(iT.bins());
+      return new Reproduction<>(
+          iT, otherCellIndex.neighbors(otherCoords, neighborRadius), elite == null ? null : elite.quality());
+    };
+  }
+
+  // collaborators are evaluated as independent tasks; with early stop, the evaluations of a child not yet started are
+  // skipped as soon as one of its composites is better than the elite of the child cell
+  private static <GT, GO, ST, SO, S, Q>
+      List<
+              Pair<
+                  CoMEPartialIndividual<GT, ST, GT, GO, ST, SO, S, Q>,
+                  List<CoMEIndividual<GT, GO, ST, SO, S, Q>>>>
+          reproduce(
+              List<Callable<Reproduction<GT, GO, ST, SO, S, Q>>> childCallables,
+              BiFunction<? super ST, ? super SO, ? extends S> solutionMerger,
+              QualityBasedProblem<S, Q> problem,
+              boolean earlyStop,
+              long iteration,
+              AtomicLong counter,
+              ExecutorService executor)
+          throws SolverException {
+    List<Reproduction<GT, GO, ST, SO, S, Q>> reproductions = new ArrayList<>(getAll(childCallables, executor));
+    List<Callable<CoMEIndividual<GT, GO, ST, SO, S, Q>>> evaluations = new ArrayList<>();
+    for (Reproduction<GT, GO, ST, SO, S, Q> reproduction : reproductions) {
+      AtomicBoolean stopped = new AtomicBoolean(false);
+      for (MEIndividual<GO, SO, Q> iO : reproduction.collaborators()) {
+        evaluations.add(() -> {
+          if (stopped.get()) {
+            return null;
+          }
+          S s = solutionMerger.apply(reproduction.child().solution(), iO.solution());
+          Q q = problem.qualityFunction().apply(s);
+          if (earlyStop
+              && reproduction.eliteQuality() != null
+              && problem.qualityComparator().compare(q, reproduction.eliteQuality())
+                  == PartialComparator.PartialComparatorOutcome.BEFORE) {
+            stopped.set(true);
+          }
+          return CoMEIndividual.of(
+              counter.getAndIncrement(), s, q, iteration, iteration, List.of(), reproduction.child(), iO);
+        });
+      }
+    }
+    List<CoMEIndividual<GT, GO, ST, SO, S, Q>> evaluated = new ArrayList<>(getAll(evaluations, executor));
+    List<Pair<CoMEPartialIndividual<GT, ST, GT, GO, ST, SO, S, Q>, List<CoMEIndividual<GT, GO, ST, SO, S, Q>>>>
+        results = new ArrayList<>(reproductions.size());
+    int from = 0;
+    for (Reproduction<GT, GO, ST, SO, S, Q> reproduction : reproductions) {
+      int to = from + reproduction.collaborators().size();
+      List<CoMEIndividual<GT, GO, ST, SO, S, Q>> localCompositeIndividuals =
+          evaluated.subList(from, to).stream().filter(Objects::nonNull).toList();
+      from = to;
       CoMEIndividual<GT, GO, ST, SO, S, Q> bestCompleteIndividual = PartiallyOrderedCollection.from(
               localCompositeIndividuals,
               problem.qualityComparator().comparing(CoMEIndividual::quality))
@@ -212,8 +286,10 @@ public class CoMapElites<G1, G2, S1, S2, S, Q>
           .stream()
           .findAny()
           .orElseThrow();
-      return new Pair<>(iT.updateWithCompleteIndividual(bestCompleteIndividual), localCompositeIndividuals);
-    };
+      results.add(new Pair<>(
+          reproduction.child().updateWithCompleteIndividual(bestCompleteIndividual), localCompositeIndividuals));
+    }
+    return results;
   }
 
   private Callable<CoMEIndividual<G1, G2, S1, S2, S, Q>> coMapCallable(
@@ -288,51 +364,63 @@ public class CoMapElites<G1, G2, S1, S2, S, Q>
       CoMEPopulationState<G1, G2, S1, S2, S, Q, QualityBasedProblem<S, Q>> state)
       throws SolverException {
     AtomicLong counter = new AtomicLong(state.nOfBirths());
+    CellIndex<CoMEPartialIndividual<G1, S1, G1, G2, S1, S2, S, Q>> cellIndex1 =
+        CellIndex.of(state.mapOfElites1().asMap());
+    CellIndex<CoMEPartialIndividual<G2, S2, G1, G2, S1, S2, S, Q>> cellIndex2 =
+        CellIndex.of(state.mapOfElites2().asMap());
     // reproduction 1
     Collection<
             Pair<
                 CoMEPartialIndividual<G1, S1, G1, G2, S1, S2, S, Q>,
                 List<CoMEIndividual<G1, G2, S1, S2, S, Q>>>>
-        reproduction1 = getAll(
+        reproduction1 = reproduce(
             IntStream.range(0, populationSize)
-                .mapToObj(i -> reproduceCallable(
-                    state.mapOfElites1(),
-                    state.mapOfElites2(),
-                    mutation1,
-                    solutionMapper1,
-                    solutionMerger,
-                    descriptors1,
-                    descriptors2,
-                    state.strategy1(),
-                    neighborRadius,
-                    state.problem(),
-                    random,
-                    state.nOfIterations(),
-                    counter))
+                .mapToObj(i -> CoMapElites
+                    .<G1, G2, S1, S2, S, Q>childCallable(
+                        state.mapOfElites1(),
+                        cellIndex2,
+                        mutation1,
+                        solutionMapper1,
+                        descriptors1,
+                        descriptors2,
+                        state.strategy1(),
+                        neighborRadius,
+                        random,
+                        state.nOfIterations(),
+                        counter))
                 .toList(),
+            solutionMerger,
+            state.problem(),
+            earlyStop,
+            state.nOfIterations(),
+            counter,
             executor);
     // reproduction 2
     Collection<
             Pair<
                 CoMEPartialIndividual<G2, S2, G2, G1, S2, S1, S, Q>,
                 List<CoMEIndividual<G2, G1, S2, S1, S, Q>>>>
-        reproduction2 = getAll(
+        reproduction2 = reproduce(
             IntStream.range(0, populationSize)
-                .mapToObj(i -> reproduceCallable(
-                    state.mapOfElites2(),
-                    state.mapOfElites1(),
-                    mutation2,
-                    solutionMapper2,
-                    (s2, s1) -> solutionMerger.apply(s1, s2),
-                    descriptors2,
-                    descriptors1,
-                    state.strategy2(),
-                    neighborRadius,
-                    state.problem(),
-                    random,
-                    state.nOfIterations(),
-                    counter))
+                .mapToObj(i -> CoMapElites
+                    .<G2, G1, S2, S1, S, Q>childCallable(
+                        state.mapOfElites2(),
+                        cellIndex1,
+                        mutation2,
+                        solutionMapper2,
+                        descriptors2,
+                        descriptors1,
+                        state.strategy2(),
+                        neighborRadius,
+                        random,
+                        state.nOfIterations(),
+                        counter))
                 .toList(),
+            (S2 s2, S1 s1) -> solutionMerger.apply(s1, s2),
+            state.problem(),
+            earlyStop,
+            state.nOfIterations(),
+            counter,
             executor);
     List<CoMEIndividual<G1, G2, S1, S2, S, Q>> coMEIndividuals1 =
         reproduction1.stream().flatMap(p1 -> p1.second().stream()).toList();
@@ -0,0 +1,142 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.solver.mapelites;
+
+import io.github.ericmedvet.jgea.core.order.PartialComparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.random.RandomGenerator;
+
+public class ConcurrentArchive<T> {
+
+  private static final int CHUNK_SIZE = 1024;
+
+  private final List<Integer> binUpperBounds;
+  private final int[] strides;
+  // chunks are created lazily; cells are replaced by compare-and-set
+  private final AtomicReferenceArray<AtomicReferenceArray<T>> chunks;
+  // occupied cell indexes, shifted by 1 so that 0 marks a slot reserved but not yet written
+  private final AtomicReferenceArray<AtomicIntegerArray> occupiedChunks;
+  private final AtomicInteger nOfOccupied;
+
+  public ConcurrentArchive(List<Integer> binUpperBounds) {
+    this.binUpperBounds = binUpperBounds;
+    strides = Archive.strides(binUpperBounds);
+    int nOfChunks = (Archive.nOfCells(binUpperBounds) + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    chunks = new AtomicReferenceArray<>(nOfChunks);
+    occupiedChunks = new AtomicReferenceArray<>(nOfChunks);
+    nOfOccupied = new AtomicInteger();
+  }
+
+  public ConcurrentArchive(Archive<T> archive) {
+    this(archive.binUpperBounds());
+    archive.asMap().forEach((bins, t) -> put(bins, t, (t1, t2) -> PartialComparator.PartialComparatorOutcome.SAME));
+  }
+
+  private AtomicReferenceArray<T> chunk(int chunkIndex) {
+    AtomicReferenceArray<T> chunk = chunks.get(chunkIndex);
+    if (chunk == null) {
+      chunks.compareAndSet(chunkIndex, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+      chunk = chunks.get(chunkIndex);
+    }
+    return chunk;
+  }
+
+  private AtomicIntegerArray occupiedChunk(int chunkIndex) {
+    AtomicIntegerArray chunk = occupiedChunks.get(chunkIndex);
+    if (chunk == null) {
+      occupiedChunks.compareAndSet(chunkIndex, null, new AtomicIntegerArray(CHUNK_SIZE));
+      chunk = occupiedChunks.get(chunkIndex);
+    }
+    return chunk;
+  }
+
+  private T cell(int index) {
+    AtomicReferenceArray<T> chunk = chunks.get(index / CHUNK_SIZE);
+    return chunk == null ? null : chunk.get(index % CHUNK_SIZE);
+  }
+
+  private int occupiedIndex(int slot) {
+    AtomicIntegerArray chunk = occupiedChunks.get(slot / CHUNK_SIZE);
+    return chunk == null ? -1 : (chunk.get(slot % CHUNK_SIZE) - 1);
+  }
+
+  public T get(List<Integer> bins) {
+    return cell(Archive.index(bins, binUpperBounds, strides));
+  }
+
+  // a slot may be reserved by a concurrent put but not yet written: the slots before it are tried instead, hence at
+  // most n slots are read, and null is returned only if no cell has been written yet
+  public T pickRandomly(RandomGenerator random) {
+    int n = nOfOccupied.get();
+    if (n == 0) {
+      return null;
+    }
+    int slot = random.nextInt(n);
+    for (int i = 0; i < n; i = i + 1) {
+      int index = occupiedIndex((slot - i + n) % n);
+      if (index >= 0) {
+        return cell(index);
+      }
+    }
+    return null;
+  }
+
+  public boolean put(List<Integer> bins, T t, PartialComparator<? super T> partialComparator) {
+    int index = Archive.index(bins, binUpperBounds, strides);
+    AtomicReferenceArray<T> chunk = chunk(index / CHUNK_SIZE);
+    int cellIndex = index % CHUNK_SIZE;
+    while (true) {
+      T otherT = chunk.get(cellIndex);
+      if (otherT == null) {
+        if (chunk.compareAndSet(cellIndex, null, t)) {
+          int slot = nOfOccupied.getAndIncrement();
+          occupiedChunk(slot / CHUNK_SIZE).set(slot % CHUNK_SIZE, index + 1);
+          return true;
+        }
+      } else if (partialComparator.compare(t, otherT).equals(PartialComparator.PartialComparatorOutcome.BEFORE)) {
+        if (chunk.compareAndSet(cellIndex, otherT, t)) {
+          return true;
+        }
+      } else {
+        return false;
+      }
+    }
+  }
+
+  public int size() {
+    return nOfOccupied.get();
+  }
+
+  public Archive<T> snapshot() {
+    Archive<T> archive = new Archive<>(binUpperBounds);
+    int n = nOfOccupied.get();
+    for (int slot = 0; slot < n; slot++) {
+      int index = occupiedIndex(slot);
+      if (index >= 0) {
+        T t = cell(index);
+        archive.put(Archive.bins(index, strides), t, (t1, t2) -> PartialComparator.PartialComparatorOutcome.SAME);
+      }
+    }
+    return archive;
+  }
+}
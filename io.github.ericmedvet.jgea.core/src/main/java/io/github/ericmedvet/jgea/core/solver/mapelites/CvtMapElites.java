@@ -0,0 +1,234 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.solver.mapelites;
+
+import io.github.ericmedvet.jgea.core.Factory;
+import io.github.ericmedvet.jgea.core.operator.Mutation;
+import io.github.ericmedvet.jgea.core.problem.QualityBasedProblem;
+import io.github.ericmedvet.jgea.core.util.KdTree;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// source -> https://doi.org/10.1109/TEVC.2017.2735550
+
+public class CvtMapElites<G, S, Q> extends MapElites<G, S, Q> {
+
+  private static final Logger L = Logger.getLogger(CvtMapElites.class.getName());
+  private static final int N_OF_K_MEANS_ITERATIONS = 20;
+  private static final long K_MEANS_SEED = 1;
+  private static final int CACHE_FORMAT_VERSION = 1;
+
+  private final int nOfCentroids;
+  private final int nOfSamples;
+  private volatile KdTree centroidsIndex;
+
+  public CvtMapElites(
+      Function<? super G, ? extends S> solutionMapper,
+      Factory<? extends G> genotypeFactory,
+      Predicate<? super MEPopulationState<G, S, Q, QualityBasedProblem<S, Q>>> stopCondition,
+      Mutation<G> mutation,
+      int populationSize,
+      List<Descriptor<G, S, Q>> descriptors,
+      int nOfCentroids,
+      int nOfSamples) {
+    super(solutionMapper, genotypeFactory, stopCondition, mutation, populationSize, descriptors);
+    if (nOfCentroids <= 0 || nOfSamples < nOfCentroids) {
+      throw new IllegalArgumentException("Invalid numbers of centroids and samples: %d and %d"
+          .formatted(nOfCentroids, nOfSamples));
+    }
+    this.nOfCentroids = nOfCentroids;
+    this.nOfSamples = nOfSamples;
+  }
+
+  // all the inputs of the centroids computation: the cache file is named after their digest and starts with them, so
+  // that a file written for other inputs, or by another version, is detected and rewritten
+  private record CacheHeader(
+      int formatVersion,
+      int nOfDimensions,
+      int nOfCentroids,
+      int nOfSamples,
+      int nOfKMeansIterations,
+      long kMeansSeed) {
+    static CacheHeader read(DataInput input) throws IOException {
+      return new CacheHeader(
+          input.readInt(), input.readInt(), input.readInt(), input.readInt(), input.readInt(), input.readLong());
+    }
+
+    String digest() {
+      try {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        write(new DataOutputStream(baos));
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(baos.toByteArray()));
+      } catch (IOException | NoSuchAlgorithmException e) {
+        throw new IllegalStateException("Cannot digest the centroids cache header", e);
+      }
+    }
+
+    void write(DataOutput output) throws IOException {
+      output.writeInt(formatVersion);
+      output.writeInt(nOfDimensions);
+      output.writeInt(nOfCentroids);
+      output.writeInt(nOfSamples);
+      output.writeInt(nOfKMeansIterations);
+      output.writeLong(kMeansSeed);
+    }
+  }
+
+  // centroids live in the unit hypercube of normalized descriptor values
+  public static double[][] centroids(int nOfDimensions, int nOfCentroids, int nOfSamples) {
+    CacheHeader header = new CacheHeader(
+        CACHE_FORMAT_VERSION, nOfDimensions, nOfCentroids, nOfSamples, N_OF_K_MEANS_ITERATIONS, K_MEANS_SEED);
+    Path path = Path.of(System.getProperty("java.io.tmpdir"), "jgea-cvt-%s.bin".formatted(header.digest()));
+    if (Files.exists(path)) {
+      try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+        CacheHeader cachedHeader = CacheHeader.read(dis);
+        if (cachedHeader.equals(header)) {
+          double[][] centroids = new double[nOfCentroids][nOfDimensions];
+          for (double[] centroid : centroids) {
+            for (int j = 0; j < nOfDimensions; j++) {
+              centroid[j] = dis.readDouble();
+            }
+          }
+          if (dis.read() == -1) {
+            return centroids;
+          }
+          L.warning("Ignoring cached centroids in %s: trailing data".formatted(path));
+        } else {
+          L.warning("Ignoring cached centroids in %s: header %s does not match %s"
+              .formatted(path, cachedHeader, header));
+        }
+      } catch (IOException e) {
+        L.log(Level.WARNING, "Cannot read cached centroids from %s: %s".formatted(path, e));
+      }
+    }
+    double[][] centroids = kMeans(nOfDimensions, nOfCentroids, nOfSamples);
+    Path tmpPath = null;
+    try {
+      tmpPath = Files.createTempFile(path.getParent(), "jgea-cvt-", ".tmp");
+      try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+        header.write(dos);
+        for (double[] centroid : centroids) {
+          for (double v : centroid) {
+            dos.writeDouble(v);
+          }
+        }
+      }
+      Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      L.log(Level.WARNING, "Cannot cache centroids to %s: %s".formatted(path, e));
+      if (tmpPath != null) {
+        try {
+          Files.deleteIfExists(tmpPath);
+        } catch (IOException deleteException) {
+          L.log(Level.WARNING, "Cannot delete temporary file %s: %s".formatted(tmpPath, deleteException));
+        }
+      }
+    }
+    return centroids;
+  }
+
+  private static double[][] kMeans(int nOfDimensions, int nOfCentroids, int nOfSamples) {
+    Random random = new Random(K_MEANS_SEED);
+    double[][] samples = new double[nOfSamples][nOfDimensions];
+    for (double[] sample : samples) {
+      for (int j = 0; j < nOfDimensions; j++) {
+        sample[j] = random.nextDouble();
+      }
+    }
+    double[][] centroids = new double[nOfCentroids][];
+    for (int i = 0; i < nOfCentroids; i++) {
+      centroids[i] = samples[i].clone();
+    }
+    for (int iteration = 0; iteration < N_OF_K_MEANS_ITERATIONS; iteration++) {
+      KdTree index = new KdTree(centroids);
+      double[][] sums = new double[nOfCentroids][nOfDimensions];
+      int[] counts = new int[nOfCentroids];
+      for (double[] sample : samples) {
+        int c = index.nearest(sample);
+        counts[c] = counts[c] + 1;
+        for (int j = 0; j < nOfDimensions; j++) {
+          sums[c][j] = sums[c][j] + sample[j];
+        }
+      }
+      double[][] newCentroids = new double[nOfCentroids][];
+      for (int i = 0; i < nOfCentroids; i++) {
+        if (counts[i] == 0) {
+          newCentroids[i] = centroids[i];
+        } else {
+          newCentroids[i] = new double[nOfDimensions];
+          for (int j = 0; j < nOfDimensions; j++) {
+            newCentroids[i][j] = sums[i][j] / counts[i];
+          }
+        }
+      }
+      centroids = newCentroids;
+    }
+    return centroids;
+  }
+
+  @Override
+  protected List<Integer> bins(MEIndividual<G, S, Q> individual) {
+    double[] point = new double[descriptors.size()];
+    for (int i = 0; i < point.length; i++) {
+      Descriptor<G, S, Q> descriptor = descriptors.get(i);
+      double value = (individual.coordinates().get(i).value() - descriptor.min())
+          / (descriptor.max() - descriptor.min());
+      point[i] = Math.max(0d, Math.min(1d, value));
+    }
+    return List.of(centroidsIndex().nearest(point));
+  }
+
+  private KdTree centroidsIndex() {
+    KdTree index = centroidsIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = centroidsIndex;
+        if (index == null) {
+          index = new KdTree(centroids(descriptors.size(), nOfCentroids, nOfSamples));
+          centroidsIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
+  @Override
+  protected Archive<MEIndividual<G, S, Q>> emptyArchive() {
+    return new Archive<>(List.of(nOfCentroids));
+  }
+}
@@ -42,7 +42,7 @@ public interface MEIndividual<G, S, Q> extends Individual<G, S, Q> {
         individual.genotypeBirthIteration(),
         individual.qualityMappingIteration(),
         individual.parentIds(),
-        descriptors.stream().map(d -> d.coordinate(individual)).toList());
+        MapElites.Descriptor.coordinates(descriptors, individual));
   }
 
   static <G, S, Q> MEIndividual<G, S, Q> of(
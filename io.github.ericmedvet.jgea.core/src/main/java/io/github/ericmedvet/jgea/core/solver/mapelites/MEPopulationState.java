@@ -37,19 +37,22 @@ public interface MEPopulationState<G, S, Q, P extends QualityBasedProblem<S, Q>>
 
   static <G, S, Q, P extends QualityBasedProblem<S, Q>> MEPopulationState<G, S, Q, P> empty(
       P problem, Predicate<State<?, ?>> stopCondition, List<MapElites.Descriptor<G, S, Q>> descriptors) {
-    return of(
-        LocalDateTime.now(),
-        0,
-        0,
+    return empty(
         problem,
         stopCondition,
-        0,
-        0,
         descriptors,
         new Archive<>(
             descriptors.stream().map(MapElites.Descriptor::nOfBins).toList()));
   }
 
+  static <G, S, Q, P extends QualityBasedProblem<S, Q>> MEPopulationState<G, S, Q, P> empty(
+      P problem,
+      Predicate<State<?, ?>> stopCondition,
+      List<MapElites.Descriptor<G, S, Q>> descriptors,
+      Archive<MEIndividual<G, S, Q>> mapOfElites) {
+    return of(LocalDateTime.now(), 0, 0, problem, stopCondition, 0, 0, descriptors, mapOfElites);
+  }
+
   static <G, S, Q, P extends QualityBasedProblem<S, Q>> MEPopulationState<G, S, Q, P> of(
       LocalDateTime startingDateTime,
       long elapsedMillis,
@@ -27,7 +27,6 @@ import io.github.ericmedvet.jgea.core.solver.AbstractPopulationBasedIterativeSol
 import io.github.ericmedvet.jgea.core.solver.Individual;
 import io.github.ericmedvet.jgea.core.solver.SolverException;
 import io.github.ericmedvet.jgea.core.util.Misc;
-import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -47,8 +46,8 @@ public class MapElites<G, S, Q>
         Q> {
 
   protected final int populationSize;
-  private final Mutation<G> mutation;
-  private final List<Descriptor<G, S, Q>> descriptors;
+  protected final Mutation<G> mutation;
+  protected final List<Descriptor<G, S, Q>> descriptors;
 
   public MapElites(
       Function<? super G, ? extends S> solutionMapper,
@@ -67,22 +66,93 @@ public class MapElites<G, S, Q>
       Function<Individual<G, S, Q>, Number> function, double min, double max, int nOfBins) {
     public record Coordinate(int bin, double value) {}
 
+    // a behavior computed once per individual and shared by all the descriptors projecting it: behaviors are shared
+    // if they are equal, i.e., if they have the same name and function
+    public record Behavior<G, S, Q, B>(String name, Function<Individual<G, S, Q>, ? extends B> function) {}
+
+    public record Projection<G, S, Q, B>(Behavior<G, S, Q, B> behavior, Function<? super B, ? extends Number> function)
+        implements Function<Individual<G, S, Q>, Number> {
+      @Override
+      public Number apply(Individual<G, S, Q> individual) {
+        return function.apply(behavior.function().apply(individual));
+      }
+    }
+
+    public static <G, S, Q, B> Descriptor<G, S, Q> of(
+        Behavior<G, S, Q, B> behavior,
+        Function<? super B, ? extends Number> projection,
+        double min,
+        double max,
+        int nOfBins) {
+      return new Descriptor<>(new Projection<>(behavior, projection), min, max, nOfBins);
+    }
+
+    public static <G, S, Q> List<Coordinate> coordinates(
+        List<Descriptor<G, S, Q>> descriptors, Individual<G, S, Q> individual) {
+      Coordinate[] coordinates = new Coordinate[descriptors.size()];
+      Object[] behaviors = new Object[descriptors.size()];
+      for (int i = 0; i < coordinates.length; i = i + 1) {
+        Descriptor<G, S, Q> descriptor = descriptors.get(i);
+        double value;
+        if (descriptor.function instanceof Projection<G, S, Q, ?> projection) {
+          behaviors[i] = sharedBehavior(descriptors, behaviors, i, projection, individual);
+          value = applyProjection(projection, behaviors[i]);
+        } else {
+          value = descriptor.function.apply(individual).doubleValue();
+        }
+        coordinates[i] = new Coordinate(descriptor.bin(value), value);
+      }
+      return List.of(coordinates);
+    }
+
+    private static <G, S, Q> Object sharedBehavior(
+        List<Descriptor<G, S, Q>> descriptors,
+        Object[] behaviors,
+        int i,
+        Projection<G, S, Q, ?> projection,
+        Individual<G, S, Q> individual) {
+      for (int j = 0; j < i; j = j + 1) {
+        if (descriptors.get(j).function instanceof Projection<G, S, Q, ?> other
+            && other.behavior().equals(projection.behavior())) {
+          return behaviors[j];
+        }
+      }
+      return projection.behavior().function().apply(individual);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <B> double applyProjection(Projection<?, ?, ?, B> projection, Object behavior) {
+      return projection.function().apply((B) behavior).doubleValue();
+    }
+
+    public int bin(double value) {
+      double normalized = (Math.max(min, Math.min(max, value)) - min) / (max - min);
+      return Math.min((int) (normalized * nOfBins), nOfBins - 1);
+    }
+
     public Coordinate coordinate(Individual<G, S, Q> individual) {
       double value = function.apply(individual).doubleValue();
-      return new Coordinate(
-          Math.min((int) (new DoubleRange(min, max).normalize(value) * nOfBins), nOfBins - 1), value);
+      return new Coordinate(bin(value), value);
     }
   }
 
+  protected List<Integer> bins(MEIndividual<G, S, Q> individual) {
+    return individual.bins();
+  }
+
+  protected Archive<MEIndividual<G, S, Q>> emptyArchive() {
+    return new Archive<>(descriptors.stream().map(Descriptor::nOfBins).toList());
+  }
+
   @Override
   public MEPopulationState<G, S, Q, QualityBasedProblem<S, Q>> init(
       QualityBasedProblem<S, Q> problem, RandomGenerator random, ExecutorService executor)
       throws SolverException {
     MEPopulationState<G, S, Q, QualityBasedProblem<S, Q>> newState =
-        MEPopulationState.empty(problem, stopCondition(), descriptors);
+        MEPopulationState.empty(problem, stopCondition(), descriptors, emptyArchive());
     AtomicLong counter = new AtomicLong(0);
     Collection<MEIndividual<G, S, Q>> newIndividuals = getAll(map(
-        genotypeFactory.build(populationSize, random).stream()
+        genotypeFactory.build(populationSize, random, executor).stream()
             .map(g -> new ChildGenotype<G>(counter.getAndIncrement(), g, List.of()))
             .toList(),
         (cg, s, r) -> MEIndividual.from(
@@ -94,7 +164,7 @@ public class MapElites<G, S, Q>
     return newState.updatedWithIteration(
         populationSize,
         populationSize,
-        newState.mapOfElites().updated(newIndividuals, MEIndividual::bins, partialComparator(problem)));
+        newState.mapOfElites().updated(newIndividuals, this::bins, partialComparator(problem)));
   }
 
   @Override
@@ -122,6 +192,6 @@ public class MapElites<G, S, Q>
     return state.updatedWithIteration(
         populationSize,
         populationSize,
-        state.mapOfElites().updated(newIndividuals, MEIndividual::bins, partialComparator(state.problem())));
+        state.mapOfElites().updated(newIndividuals, this::bins, partialComparator(state.problem())));
   }
 }
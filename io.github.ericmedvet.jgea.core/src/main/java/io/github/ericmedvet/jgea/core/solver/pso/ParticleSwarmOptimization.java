@@ -66,7 +66,7 @@ public class ParticleSwarmOptimization<S, Q>
     PSOState<S, Q> newState = PSOState.empty(problem, stopCondition());
     // init positions
     AtomicLong counter = new AtomicLong();
-    List<? extends List<Double>> positions = genotypeFactory.build(populationSize, random);
+    List<? extends List<Double>> positions = genotypeFactory.build(populationSize, random, executor);
     double min = positions.stream()
         .flatMap(List::stream)
         .mapToDouble(v -> v)
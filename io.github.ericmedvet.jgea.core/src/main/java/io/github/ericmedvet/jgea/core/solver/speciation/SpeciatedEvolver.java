@@ -87,7 +87,7 @@ public class SpeciatedEvolver<G, S, Q>
         SpeciatedPOCPopulationState.empty(problem, stopCondition());
     AtomicLong counter = new AtomicLong(0);
     Collection<Individual<G, S, Q>> newIndividuals = getAll(map(
-        genotypeFactory.build(populationSize, random).stream()
+        genotypeFactory.build(populationSize, random, executor).stream()
             .map(g -> new ChildGenotype<G>(counter.getAndIncrement(), g, List.of()))
             .toList(),
         (cg, s, r) -> Individual.from(cg, solutionMapper, s.problem().qualityFunction(), s.nOfIterations()),
@@ -0,0 +1,98 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.util;
+
+// square matrices stored row-major in a flat array
+public class DenseMatrices {
+
+  private DenseMatrices() {}
+
+  private static int size(double[] m) {
+    int n = (int) Math.round(Math.sqrt(m.length));
+    if (n * n != m.length) {
+      throw new IllegalArgumentException("Not a square matrix: %d elements".formatted(m.length));
+    }
+    return n;
+  }
+
+  public static double[] fromRows(double[][] rows) {
+    int n = rows.length;
+    double[] m = new double[n * n];
+    for (int i = 0; i < n; i++) {
+      if (rows[i].length != n) {
+        throw new IllegalArgumentException("Not a square matrix: row %d has %d elements instead of %d"
+            .formatted(i, rows[i].length, n));
+      }
+      System.arraycopy(rows[i], 0, m, i * n, n);
+    }
+    return m;
+  }
+
+  public static double[] identity(int n) {
+    double[] m = new double[n * n];
+    for (int i = 0; i < n; i++) {
+      m[i * n + i] = 1d;
+    }
+    return m;
+  }
+
+  // m v
+  public static double[] times(double[] m, double[] v) {
+    int n = size(m);
+    if (v.length != n) {
+      throw new IllegalArgumentException("Wrong vector length: %d expected, %d found".formatted(n, v.length));
+    }
+    double[] r = new double[n];
+    for (int i = 0; i < n; i++) {
+      double s = 0d;
+      int row = i * n;
+      for (int j = 0; j < n; j++) {
+        s = s + m[row + j] * v[j];
+      }
+      r[i] = s;
+    }
+    return r;
+  }
+
+  // m diag(d)
+  public static double[] timesDiagonal(double[] m, double[] d) {
+    int n = size(m);
+    if (d.length != n) {
+      throw new IllegalArgumentException("Wrong diagonal length: %d expected, %d found".formatted(n, d.length));
+    }
+    double[] r = new double[n * n];
+    for (int i = 0; i < n; i++) {
+      int row = i * n;
+      for (int j = 0; j < n; j++) {
+        r[row + j] = m[row + j] * d[j];
+      }
+    }
+    return r;
+  }
+
+  public static double[][] toRows(double[] m) {
+    int n = size(m);
+    double[][] rows = new double[n][n];
+    for (int i = 0; i < n; i++) {
+      System.arraycopy(m, i * n, rows[i], 0, n);
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,186 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.util;
+
+import java.util.stream.IntStream;
+
+// static k-d tree, implicitly stored in a permutation of the points: each range is split at its middle position
+public class KdTree {
+
+  private final double[][] points;
+  private final int[] indexes;
+  private final int[] splitDimensions;
+
+  public KdTree(double[][] points) {
+    if (points.length == 0) {
+      throw new IllegalArgumentException("Cannot build a k-d tree with no points");
+    }
+    int nOfDimensions = points[0].length;
+    for (double[] point : points) {
+      if (point.length != nOfDimensions) {
+        throw new IllegalArgumentException(
+            "Wrong point length: %d expected, %d found".formatted(nOfDimensions, point.length));
+      }
+    }
+    this.points = points;
+    indexes = new int[points.length];
+    for (int i = 0; i < indexes.length; i++) {
+      indexes[i] = i;
+    }
+    splitDimensions = new int[points.length];
+    build(0, points.length);
+  }
+
+  private static double squaredDistance(double[] p1, double[] p2) {
+    double d = 0d;
+    for (int i = 0; i < p1.length; i++) {
+      double diff = p1[i] - p2[i];
+      d = d + diff * diff;
+    }
+    return d;
+  }
+
+  private void build(int from, int to) {
+    if (to - from <= 1) {
+      return;
+    }
+    // split on the dimension with the largest spread
+    int nOfDimensions = points[0].length;
+    int splitDimension = 0;
+    double maxSpread = -1d;
+    for (int d = 0; d < nOfDimensions; d++) {
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      for (int i = from; i < to; i++) {
+        min = Math.min(min, points[indexes[i]][d]);
+        max = Math.max(max, points[indexes[i]][d]);
+      }
+      if (max - min > maxSpread) {
+        maxSpread = max - min;
+        splitDimension = d;
+      }
+    }
+    int mid = (from + to) / 2;
+    select(from, to - 1, mid, splitDimension);
+    splitDimensions[mid] = splitDimension;
+    build(from, mid);
+    build(mid + 1, to);
+  }
+
+  private void checkLength(double[] point) {
+    if (point.length != points[0].length) {
+      throw new IllegalArgumentException(
+          "Wrong point length: %d expected, %d found".formatted(points[0].length, point.length));
+    }
+  }
+
+  public int nearest(double[] point) {
+    checkLength(point);
+    double[] best = {Double.POSITIVE_INFINITY, -1};
+    search(point, 0, points.length, best);
+    return (int) best[1];
+  }
+
+  // indexes, in increasing order, of the points whose Euclidean distance from the given one is less than radius
+  public int[] within(double[] point, double radius) {
+    checkLength(point);
+    IntStream.Builder builder = IntStream.builder();
+    collect(point, radius, 0, points.length, builder);
+    return builder.build().sorted().toArray();
+  }
+
+  private void collect(double[] point, double radius, int from, int to, IntStream.Builder builder) {
+    if (from >= to) {
+      return;
+    }
+    int mid = (from + to) / 2;
+    int index = indexes[mid];
+    if (Math.sqrt(squaredDistance(point, points[index])) < radius) {
+      builder.add(index);
+    }
+    double diff = point[splitDimensions[mid]] - points[index][splitDimensions[mid]];
+    if (diff < radius) {
+      collect(point, radius, from, mid, builder);
+    }
+    if (-diff < radius) {
+      collect(point, radius, mid + 1, to, builder);
+    }
+  }
+
+  public int size() {
+    return points.length;
+  }
+
+  private void search(double[] point, int from, int to, double[] best) {
+    if (from >= to) {
+      return;
+    }
+    int mid = (from + to) / 2;
+    int index = indexes[mid];
+    double d = squaredDistance(point, points[index]);
+    if (d < best[0] || (d == best[0] && index < best[1])) {
+      best[0] = d;
+      best[1] = index;
+    }
+    double diff = point[splitDimensions[mid]] - points[index][splitDimensions[mid]];
+    if (diff < 0) {
+      search(point, from, mid, best);
+      if (diff * diff <= best[0]) {
+        search(point, mid + 1, to, best);
+      }
+    } else {
+      search(point, mid + 1, to, best);
+      if (diff * diff <= best[0]) {
+        search(point, from, mid, best);
+      }
+    }
+  }
+
+  // quickselect: after this, indexes[k] is the one that would be there if [left, right] was sorted on dimension
+  private void select(int left, int right, int k, int dimension) {
+    while (right > left) {
+      double pivot = points[indexes[(left + right) >>> 1]][dimension];
+      int i = left;
+      int j = right;
+      while (i <= j) {
+        while (points[indexes[i]][dimension] < pivot) {
+          i++;
+        }
+        while (points[indexes[j]][dimension] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          int tmp = indexes[i];
+          indexes[i] = indexes[j];
+          indexes[j] = tmp;
+          i++;
+          j--;
+        }
+      }
+      if (k <= j) {
+        right = j;
+      } else if (k >= i) {
+        left = i;
+      } else {
+        return;
+      }
+    }
+  }
+}
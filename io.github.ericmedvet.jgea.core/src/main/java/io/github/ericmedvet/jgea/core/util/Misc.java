@@ -150,6 +150,9 @@ public class Misc {
 
   @SuppressWarnings("unchecked")
   public static <T> T pickRandomly(Collection<T> ts, RandomGenerator random) {
+    if (ts instanceof List<T> list) {
+      return list.get(random.nextInt(list.size()));
+    }
     return (T) ts.toArray()[random.nextInt(ts.size())];
   }
 
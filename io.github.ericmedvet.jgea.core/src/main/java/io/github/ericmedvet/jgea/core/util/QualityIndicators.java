@@ -0,0 +1,276 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jgea-core
+ * %%
+ * Copyright (C) 2018 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jgea.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+// all the indicators assume minimization of all the objectives
+public class QualityIndicators {
+
+  private QualityIndicators() {}
+
+  private static void checkDimensions(double[][] points, int nOfObjectives) {
+    for (double[] point : points) {
+      if (point.length != nOfObjectives) {
+        throw new IllegalArgumentException(
+            "Wrong point length: %d expected, %d found".formatted(nOfObjectives, point.length));
+      }
+    }
+  }
+
+  private static boolean dominatesOrEquals(double[] p1, double[] p2, int nOfObjectives) {
+    for (int i = 0; i < nOfObjectives; i++) {
+      if (p1[i] > p2[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static double exclusiveHypervolume(double[][] sortedPoints, int k, int nOfObjectives, double[] reference) {
+    // later points are not worse on the last objective, hence they cover the slab of the k-th point on that
+    // objective: the exclusive volume is the one of the projections on the other objectives
+    int d = nOfObjectives - 1;
+    double[] point = sortedPoints[k];
+    double[][] limitSet = new double[sortedPoints.length - k - 1][];
+    for (int i = k + 1; i < sortedPoints.length; i++) {
+      double[] limitPoint = new double[d];
+      for (int j = 0; j < d; j++) {
+        limitPoint[j] = Math.max(point[j], sortedPoints[i][j]);
+      }
+      limitSet[i - k - 1] = limitPoint;
+    }
+    double inclusiveHypervolume = 1d;
+    for (int j = 0; j < d; j++) {
+      inclusiveHypervolume = inclusiveHypervolume * (reference[j] - point[j]);
+    }
+    return (reference[d] - point[d]) * (inclusiveHypervolume - hypervolume(nonDominated(limitSet, d), d, reference));
+  }
+
+  private static double hypervolume(double[][] points, int nOfObjectives, double[] reference) {
+    if (points.length == 0) {
+      return 0d;
+    }
+    if (nOfObjectives == 1) {
+      return reference[0] - Arrays.stream(points).mapToDouble(p -> p[0]).min().orElseThrow();
+    }
+    if (nOfObjectives == 2) {
+      double[][] sortedPoints = points.clone();
+      Arrays.sort(sortedPoints, Comparator.comparingDouble(p -> p[0]));
+      double volume = 0d;
+      double previousY = reference[1];
+      for (double[] point : sortedPoints) {
+        if (point[1] < previousY) {
+          volume = volume + (reference[0] - point[0]) * (previousY - point[1]);
+          previousY = point[1];
+        }
+      }
+      return volume;
+    }
+    double[][] sortedPoints = sortedByLastObjective(points, nOfObjectives);
+    double volume = 0d;
+    for (int k = 0; k < sortedPoints.length; k++) {
+      volume = volume + exclusiveHypervolume(sortedPoints, k, nOfObjectives, reference);
+    }
+    return volume;
+  }
+
+  public static double hypervolume(double[][] points, double[] reference) {
+    double[][] validPoints = validPoints(points, reference);
+    return hypervolume(validPoints, reference.length, reference);
+  }
+
+  public static double hypervolume(double[][] points, double[] reference, ExecutorService executor) {
+    double[][] validPoints = validPoints(points, reference);
+    if (reference.length <= 2) {
+      return hypervolume(validPoints, reference.length, reference);
+    }
+    double[][] sortedPoints = sortedByLastObjective(validPoints, reference.length);
+    return sum(
+        IntStream.range(0, sortedPoints.length)
+            .mapToObj(k -> (Callable<Double>)
+                () -> exclusiveHypervolume(sortedPoints, k, reference.length, reference))
+            .toList(),
+        executor);
+  }
+
+  public static double hypervolumeMonteCarlo(
+      double[][] points, double[] reference, int nOfSamples, RandomGenerator random) {
+    double[][] validPoints = validPoints(points, reference);
+    if (validPoints.length == 0) {
+      return 0d;
+    }
+    double[] lowerBounds = lowerBounds(validPoints, reference.length);
+    return boxVolume(lowerBounds, reference)
+        * (double) nOfDominatedSamples(validPoints, lowerBounds, reference, nOfSamples, random)
+        / (double) nOfSamples;
+  }
+
+  public static double hypervolumeMonteCarlo(
+      double[][] points,
+      double[] reference,
+      int nOfSamples,
+      int nOfChunks,
+      RandomGenerator random,
+      ExecutorService executor) {
+    double[][] validPoints = validPoints(points, reference);
+    if (validPoints.length == 0) {
+      return 0d;
+    }
+    double[] lowerBounds = lowerBounds(validPoints, reference.length);
+    List<Callable<Double>> callables = new ArrayList<>(nOfChunks);
+    for (int i = 0; i < nOfChunks; i++) {
+      long seed = random.nextLong();
+      int chunkNOfSamples = nOfSamples / nOfChunks + (i < nOfSamples % nOfChunks ? 1 : 0);
+      callables.add(() -> (double)
+          nOfDominatedSamples(validPoints, lowerBounds, reference, chunkNOfSamples, new Random(seed)));
+    }
+    return boxVolume(lowerBounds, reference) * sum(callables, executor) / (double) nOfSamples;
+  }
+
+  public static double igd(double[][] points, double[][] referencePoints) {
+    return invertedGenerationalDistance(points, referencePoints, false);
+  }
+
+  public static double igdPlus(double[][] points, double[][] referencePoints) {
+    return invertedGenerationalDistance(points, referencePoints, true);
+  }
+
+  private static double invertedGenerationalDistance(double[][] points, double[][] referencePoints, boolean plus) {
+    if (points.length == 0 || referencePoints.length == 0) {
+      return Double.NaN;
+    }
+    int nOfObjectives = referencePoints[0].length;
+    checkDimensions(points, nOfObjectives);
+    checkDimensions(referencePoints, nOfObjectives);
+    double sum = 0d;
+    for (double[] referencePoint : referencePoints) {
+      double minD = Double.POSITIVE_INFINITY;
+      for (double[] point : points) {
+        double d = 0d;
+        for (int i = 0; i < nOfObjectives; i++) {
+          double diff = plus ? Math.max(point[i] - referencePoint[i], 0d) : (point[i] - referencePoint[i]);
+          d = d + diff * diff;
+        }
+        minD = Math.min(minD, d);
+      }
+      sum = sum + Math.sqrt(minD);
+    }
+    return sum / (double) referencePoints.length;
+  }
+
+  private static double boxVolume(double[] lowerBounds, double[] upperBounds) {
+    double volume = 1d;
+    for (int i = 0; i < lowerBounds.length; i++) {
+      volume = volume * (upperBounds[i] - lowerBounds[i]);
+    }
+    return volume;
+  }
+
+  private static double[] lowerBounds(double[][] points, int nOfObjectives) {
+    double[] lowerBounds = new double[nOfObjectives];
+    Arrays.fill(lowerBounds, Double.POSITIVE_INFINITY);
+    for (double[] point : points) {
+      for (int i = 0; i < nOfObjectives; i++) {
+        lowerBounds[i] = Math.min(lowerBounds[i], point[i]);
+      }
+    }
+    return lowerBounds;
+  }
+
+  private static long nOfDominatedSamples(
+      double[][] points, double[] lowerBounds, double[] upperBounds, int nOfSamples, RandomGenerator random) {
+    int nOfObjectives = lowerBounds.length;
+    double[] sample = new double[nOfObjectives];
+    long count = 0;
+    for (int s = 0; s < nOfSamples; s++) {
+      for (int i = 0; i < nOfObjectives; i++) {
+        sample[i] = lowerBounds[i] + random.nextDouble() * (upperBounds[i] - lowerBounds[i]);
+      }
+      for (double[] point : points) {
+        if (dominatesOrEquals(point, sample, nOfObjectives)) {
+          count = count + 1;
+          break;
+        }
+      }
+    }
+    return count;
+  }
+
+  private static double[][] nonDominated(double[][] points, int nOfObjectives) {
+    List<double[]> nonDominated = new ArrayList<>(points.length);
+    for (int i = 0; i < points.length; i++) {
+      boolean dominated = false;
+      for (int j = 0; j < points.length && !dominated; j++) {
+        if (i != j && dominatesOrEquals(points[j], points[i], nOfObjectives)) {
+          // of two equal points, only the last one is kept
+          dominated = j > i || !dominatesOrEquals(points[i], points[j], nOfObjectives);
+        }
+      }
+      if (!dominated) {
+        nonDominated.add(points[i]);
+      }
+    }
+    return nonDominated.toArray(double[][]::new);
+  }
+
+  private static double[][] sortedByLastObjective(double[][] points, int nOfObjectives) {
+    double[][] sortedPoints = points.clone();
+    Arrays.sort(sortedPoints, Comparator.comparingDouble((double[] p) -> p[nOfObjectives - 1]).reversed());
+    return sortedPoints;
+  }
+
+  private static double sum(List<Callable<Double>> callables, ExecutorService executor) {
+    try {
+      double sum = 0d;
+      for (Future<Double> future : executor.invokeAll(callables)) {
+        sum = sum + future.get();
+      }
+      return sum;
+    } catch (InterruptedException | ExecutionException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  public static double[][] toArray(Collection<List<Double>> points) {
+    return points.stream()
+        .map(p -> p.stream().mapToDouble(Double::doubleValue).toArray())
+        .toArray(double[][]::new);
+  }
+
+  private static double[][] validPoints(double[][] points, double[] reference) {
+    checkDimensions(points, reference.length);
+    double[][] strictlyDominating = Arrays.stream(points)
+        .filter(p -> IntStream.range(0, reference.length).allMatch(i -> p[i] < reference[i]))
+        .toArray(double[][]::new);
+    return nonDominated(strictlyDominating, reference.length);
+  }
+}
@@ -30,9 +30,11 @@ import io.github.ericmedvet.jgea.core.solver.Individual;
 import io.github.ericmedvet.jgea.core.solver.POCPopulationState;
 import io.github.ericmedvet.jgea.core.solver.State;
 import io.github.ericmedvet.jgea.core.solver.cabea.GridPopulationState;
+import io.github.ericmedvet.jgea.core.solver.es.CMAESState;
 import io.github.ericmedvet.jgea.core.solver.mapelites.*;
 import io.github.ericmedvet.jgea.core.util.Misc;
 import io.github.ericmedvet.jgea.core.util.Progress;
+import io.github.ericmedvet.jgea.core.util.QualityIndicators;
 import io.github.ericmedvet.jgea.core.util.Sized;
 import io.github.ericmedvet.jgea.core.util.TextPlotter;
 import io.github.ericmedvet.jgea.experimenter.Run;
@@ -59,9 +61,12 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
 
 @Discoverable(prefixTemplate = "ea.function|f")
 public class Functions {
@@ -90,8 +95,14 @@ public class Functions {
   @Cacheable
   public static <X, G> NamedFunction<X, Grid<G>> archiveToGrid(
       @Param(value = "of", dNPM = "f.identity()") Function<X, Archive<G>> beforeF) {
-    Function<Archive<G>, Grid<G>> f = a ->
-        Grid.create(a.binUpperBounds().getFirst(), a.binUpperBounds().get(1), (x, y) -> a.get(List.of(x, y)));
+    // a 1-D archive, as the one of CVT-MAP-Elites, is shown as a single row
+    Function<Archive<G>, Grid<G>> f = a -> switch (a.binUpperBounds().size()) {
+      case 1 -> Grid.create(a.binUpperBounds().getFirst(), 1, (x, y) -> a.get(List.of(x)));
+      case 2 -> Grid.create(
+          a.binUpperBounds().getFirst(), a.binUpperBounds().get(1), (x, y) -> a.get(List.of(x, y)));
+      default -> throw new IllegalArgumentException("Cannot show a %d-D archive as a grid"
+          .formatted(a.binUpperBounds().size()));
+    };
     return NamedFunction.from(f, "archive.to.grid").compose(beforeF);
   }
 
@@ -199,6 +210,15 @@ public class Functions {
     return NamedFunction.from(f, "csv.plotter").compose(beforeF);
   }
 
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <X> FormattedNamedFunction<X, Long> eigenStaleness(
+      @Param(value = "of", dNPM = "f.identity()") Function<X, CMAESState<?, ?>> beforeF,
+      @Param(value = "format", dS = "%3d") String format) {
+    Function<CMAESState<?, ?>, Long> f = CMAESState::eigenStaleness;
+    return FormattedNamedFunction.from(f, format, "eigen.staleness").compose(beforeF);
+  }
+
   @SuppressWarnings("unused")
   @Cacheable
   public static <X> FormattedNamedFunction<X, Double> elapsedSecs(
@@ -245,6 +265,32 @@ public class Functions {
     return FormattedNamedFunction.from(f, "%" + nOfBins + "s", "hist").compose(beforeF);
   }
 
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <X> FormattedNamedFunction<X, Double> hypervolume(
+      @Param("reference") List<Double> reference,
+      @Param(value = "nOfSamples", dI = 0) int nOfSamples,
+      @Param(value = "seed", dI = 1) int seed,
+      @Param(value = "parallel") boolean parallel,
+      @Param(value = "nOfChunks", dI = 8) int nOfChunks,
+      @Param(value = "of", dNPM = "f.identity()") Function<X, Collection<List<Double>>> beforeF,
+      @Param(value = "format", dS = "%.2f") String format) {
+    double[] r = reference.stream().mapToDouble(Double::doubleValue).toArray();
+    Function<Collection<List<Double>>, Double> f;
+    if (parallel) {
+      // the common pool is used since the function has no lifecycle in which an own executor could be shut down
+      f = ps -> nOfSamples > 0
+          ? QualityIndicators.hypervolumeMonteCarlo(
+              QualityIndicators.toArray(ps), r, nOfSamples, nOfChunks, new Random(seed), ForkJoinPool.commonPool())
+          : QualityIndicators.hypervolume(QualityIndicators.toArray(ps), r, ForkJoinPool.commonPool());
+    } else {
+      f = ps -> nOfSamples > 0
+          ? QualityIndicators.hypervolumeMonteCarlo(QualityIndicators.toArray(ps), r, nOfSamples, new Random(seed))
+          : QualityIndicators.hypervolume(QualityIndicators.toArray(ps), r);
+    }
+    return FormattedNamedFunction.from(f, format, "hv").compose(beforeF);
+  }
+
   @SuppressWarnings("unused")
   @Cacheable
   public static <X> FormattedNamedFunction<X, Double> hypervolume2D(
@@ -265,6 +311,35 @@ public class Functions {
     return FormattedNamedFunction.from(f, format, "id").compose(beforeF);
   }
 
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <X> FormattedNamedFunction<X, Double> igd(
+      @Param("referencePoints") List<Double> referencePoints,
+      @Param(value = "plus") boolean plus,
+      @Param(value = "of", dNPM = "f.identity()") Function<X, Collection<List<Double>>> beforeF,
+      @Param(value = "format", dS = "%.3f") String format) {
+    // reference points are given flattened, and split according to the number of objectives of the points
+    Function<Collection<List<Double>>, Double> f = ps -> {
+      if (ps.isEmpty()) {
+        return Double.NaN;
+      }
+      int nOfObjectives = ps.iterator().next().size();
+      if (referencePoints.size() % nOfObjectives != 0) {
+        throw new IllegalArgumentException("Wrong number of reference values: %d is not a multiple of %d"
+            .formatted(referencePoints.size(), nOfObjectives));
+      }
+      double[][] rs = IntStream.range(0, referencePoints.size() / nOfObjectives)
+          .mapToObj(i -> referencePoints.subList(i * nOfObjectives, (i + 1) * nOfObjectives).stream()
+              .mapToDouble(Double::doubleValue)
+              .toArray())
+          .toArray(double[][]::new);
+      double[][] points = QualityIndicators.toArray(ps);
+      return plus ? QualityIndicators.igdPlus(points, rs) : QualityIndicators.igd(points, rs);
+    };
+    String name = plus ? "igd+" : "igd";
+    return FormattedNamedFunction.from(f, format, name).compose(beforeF);
+  }
+
   @SuppressWarnings("unused")
   @Cacheable
   public static <X, P extends XYPlot<D>, D> NamedFunction<X, BufferedImage> imagePlotter(
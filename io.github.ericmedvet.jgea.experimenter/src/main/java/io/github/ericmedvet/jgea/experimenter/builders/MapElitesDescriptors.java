@@ -30,6 +30,13 @@ import java.util.function.Function;
 public class MapElitesDescriptors {
   private MapElitesDescriptors() {}
 
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <G, S, Q, B> MapElites.Descriptor.Behavior<G, S, Q, B> behavior(
+      @Param("name") String name, @Param("f") Function<Individual<G, S, Q>, B> f) {
+    return new MapElites.Descriptor.Behavior<>(name, f);
+  }
+
   @SuppressWarnings("unused")
   @Cacheable
   public static <G, S, Q> MapElites.Descriptor<G, S, Q> descriptor(
@@ -39,4 +46,15 @@ public class MapElitesDescriptors {
       @Param(value = "nOfBins", dI = 20) int nOfBins) {
     return new MapElites.Descriptor<>(f, min, max, nOfBins);
   }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <G, S, Q, B> MapElites.Descriptor<G, S, Q> projection(
+      @Param("behavior") MapElites.Descriptor.Behavior<G, S, Q, B> behavior,
+      @Param("f") Function<B, Number> f,
+      @Param(value = "min", dD = 0d) double min,
+      @Param(value = "max", dD = 1d) double max,
+      @Param(value = "nOfBins", dI = 20) int nOfBins) {
+    return MapElites.Descriptor.of(behavior, f, min, max, nOfBins);
+  }
 }
@@ -314,8 +314,8 @@ public class Mappers {
       @Param(value = "postOperator", dNPM = "ds.f.doubleOp(activationF=identity)")
           Function<Double, Double> postOperator) {
     return beforeM.andThen(InvertibleMapper.from(
-        (nmrf, ts) -> new TreeBasedMultivariateRealFunction(ts, nmrf.xVarNames(), nmrf.yVarNames())
-            .andThen(toOperator(postOperator)),
+        (nmrf, ts) -> new TreeBasedMultivariateRealFunction(
+            ts, nmrf.xVarNames(), nmrf.yVarNames(), toOperator(postOperator)),
         nmrf -> TreeBasedMultivariateRealFunction.sampleFor(nmrf.xVarNames(), nmrf.yVarNames()),
         "multiSrTreeToNmrf[po=%s]".formatted(postOperator)));
   }
@@ -510,8 +510,8 @@ public class Mappers {
       @Param(value = "postOperator", dNPM = "ds.f.doubleOp(activationF=identity)")
           Function<Double, Double> postOperator) {
     return beforeM.andThen(InvertibleMapper.from(
-        (nurf, t) -> new TreeBasedUnivariateRealFunction(t, nurf.xVarNames(), nurf.yVarName())
-            .andThen(toOperator(postOperator)),
+        (nurf, t) ->
+            new TreeBasedUnivariateRealFunction(t, nurf.xVarNames(), nurf.yVarName(), toOperator(postOperator)),
         nurf -> TreeBasedUnivariateRealFunction.sampleFor(nurf.xVarNames(), nurf.yVarName()),
         "srTreeToNurf[po=%s]".formatted(postOperator)));
   }
@@ -20,6 +20,7 @@
 
 package io.github.ericmedvet.jgea.experimenter.builders;
 
+import io.github.ericmedvet.jgea.core.representation.tree.numeric.SubtreeOutputCache;
 import io.github.ericmedvet.jgea.problem.regression.NumericalDataset;
 import io.github.ericmedvet.jgea.problem.regression.multivariate.MultivariateRegressionFitness;
 import io.github.ericmedvet.jgea.problem.regression.multivariate.MultivariateRegressionProblem;
@@ -38,9 +39,11 @@ public class MultivariateRegressionProblems {
   public static MultivariateRegressionProblem<MultivariateRegressionFitness> fromData(
       @Param("trainingDataset") Supplier<NumericalDataset> trainingDataset,
       @Param(value = "testDataset", dNPM = "ea.d.num.empty()") Supplier<NumericalDataset> testDataset,
-      @Param(value = "metric", dS = "mse") UnivariateRegressionFitness.Metric metric) {
+      @Param(value = "metric", dS = "mse") UnivariateRegressionFitness.Metric metric,
+      @Param(value = "subtreeCacheMB", dI = 0) int subtreeCacheMB) {
+    SubtreeOutputCache cache = UnivariateRegressionProblems.subtreeCache(subtreeCacheMB);
     return new MultivariateRegressionProblem<>(
-        new MultivariateRegressionFitness(trainingDataset.get(), metric),
-        new MultivariateRegressionFitness(testDataset.get(), metric));
+        new MultivariateRegressionFitness(trainingDataset.get(), metric, cache),
+        new MultivariateRegressionFitness(testDataset.get(), metric, cache));
   }
 }
@@ -19,6 +19,7 @@
  */
 package io.github.ericmedvet.jgea.experimenter.builders;
 
+import io.github.ericmedvet.jgea.core.Factory;
 import io.github.ericmedvet.jgea.core.IndependentFactory;
 import io.github.ericmedvet.jgea.core.operator.Crossover;
 import io.github.ericmedvet.jgea.core.operator.Mutation;
@@ -95,7 +96,8 @@ public class Representations {
               dSs = {"addition", "subtraction", "multiplication", "prot_division", "prot_log"})
           List<Element.Operator> operators,
       @Param(value = "minTreeH", dI = 4) int minTreeH,
-      @Param(value = "maxTreeH", dI = 10) int maxTreeH) {
+      @Param(value = "maxTreeH", dI = 10) int maxTreeH,
+      @Param(value = "interning") boolean interning) {
     return g -> {
       List<Element.Variable> variables = g.stream()
           .map(t -> t.visitDepth().stream()
@@ -130,6 +132,20 @@ public class Representations {
       SubtreeMutation<Element> subtreeMutation = new SubtreeMutation<>(maxTreeH, treeBuilder);
       Mutation<List<Tree<Element>>> allSubtreeMutations = (list, rnd) ->
           list.stream().map(t -> subtreeMutation.mutate(t, rnd)).toList();
+      if (interning) {
+        // share identical subtrees across the population
+        TreeInterner<Element> interner = new TreeInterner<>();
+        Function<List<Tree<Element>>, List<Tree<Element>>> internAll =
+            list -> list.stream().map(interner::intern).toList();
+        Mutation<List<Tree<Element>>> internedMutation =
+            (list, rnd) -> internAll.apply(allSubtreeMutations.mutate(list, rnd));
+        Crossover<List<Tree<Element>>> internedCrossover =
+            (list1, list2, rnd) -> internAll.apply(pairWiseSubtreeCrossover.recombine(list1, list2, rnd));
+        return new Representation<>(
+            treeListFactory.then(internAll),
+            List.of(internedMutation),
+            List.of(internedCrossover, uniformCrossover));
+      }
       return new Representation<>(
           treeListFactory, List.of(allSubtreeMutations), List.of(pairWiseSubtreeCrossover, uniformCrossover));
     };
@@ -154,7 +170,8 @@ public class Representations {
               dSs = {"addition", "subtraction", "multiplication", "prot_division", "prot_log"})
           List<Element.Operator> operators,
       @Param(value = "minTreeH", dI = 4) int minTreeH,
-      @Param(value = "maxTreeH", dI = 10) int maxTreeH) {
+      @Param(value = "maxTreeH", dI = 10) int maxTreeH,
+      @Param(value = "interning") boolean interning) {
     return g -> {
       List<Element.Variable> variables = g.visitDepth().stream()
           .filter(e -> e instanceof Element.Variable)
@@ -169,10 +186,19 @@ public class Representations {
       IndependentFactory<Element> nonTerminalFactory = IndependentFactory.picker(operators);
       // single tree factory
       TreeBuilder<Element> treeBuilder = new GrowTreeBuilder<>(x -> 2, nonTerminalFactory, terminalFactory);
-      return new Representation<>(
-          new RampedHalfAndHalf<>(minTreeH, maxTreeH, x -> 2, nonTerminalFactory, terminalFactory),
-          new SubtreeMutation<>(maxTreeH, treeBuilder),
-          new SubtreeCrossover<>(maxTreeH));
+      Factory<Tree<Element>> factory =
+          new RampedHalfAndHalf<>(minTreeH, maxTreeH, x -> 2, nonTerminalFactory, terminalFactory);
+      Mutation<Tree<Element>> mutation = new SubtreeMutation<>(maxTreeH, treeBuilder);
+      Crossover<Tree<Element>> crossover = new SubtreeCrossover<>(maxTreeH);
+      if (interning) {
+        // share identical subtrees across the population
+        TreeInterner<Element> interner = new TreeInterner<>();
+        Mutation<Tree<Element>> internedMutation = (t, rnd) -> interner.intern(mutation.mutate(t, rnd));
+        Crossover<Tree<Element>> internedCrossover =
+            (t1, t2, rnd) -> interner.intern(crossover.recombine(t1, t2, rnd));
+        return new Representation<>(factory.then(interner::intern), internedMutation, internedCrossover);
+      }
+      return new Representation<>(factory, mutation, crossover);
     };
   }
 }
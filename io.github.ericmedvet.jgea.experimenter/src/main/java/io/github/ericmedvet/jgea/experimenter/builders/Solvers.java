@@ -38,9 +38,13 @@ import io.github.ericmedvet.jgea.core.solver.*;
 import io.github.ericmedvet.jgea.core.solver.cabea.CellularAutomataBasedSolver;
 import io.github.ericmedvet.jgea.core.solver.cabea.SubstrateFiller;
 import io.github.ericmedvet.jgea.core.solver.es.CMAEvolutionaryStrategy;
+import io.github.ericmedvet.jgea.core.solver.es.LMMAEvolutionaryStrategy;
 import io.github.ericmedvet.jgea.core.solver.es.OpenAIEvolutionaryStrategy;
+import io.github.ericmedvet.jgea.core.solver.es.SepCMAEvolutionaryStrategy;
 import io.github.ericmedvet.jgea.core.solver.es.SimpleEvolutionaryStrategy;
+import io.github.ericmedvet.jgea.core.solver.mapelites.AsyncMapElites;
 import io.github.ericmedvet.jgea.core.solver.mapelites.CoMapElites;
+import io.github.ericmedvet.jgea.core.solver.mapelites.CvtMapElites;
 import io.github.ericmedvet.jgea.core.solver.mapelites.MapElites;
 import io.github.ericmedvet.jgea.core.solver.mapelites.strategy.CoMEStrategy;
 import io.github.ericmedvet.jgea.core.solver.pso.ParticleSwarmOptimization;
@@ -63,6 +67,35 @@ public class Solvers {
 
   private Solvers() {}
 
+  private static <G> UniquenessFilter<G> uniquenessFilter(boolean history, boolean wideFingerprints) {
+    return new UniquenessFilter<>(
+        wideFingerprints ? UniquenessFilter.toStringFingerprinter() : UniquenessFilter.hashCodeFingerprinter(),
+        history);
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <G, S, Q> Function<S, AsyncMapElites<G, S, Q>> asyncMapElites(
+      @Param(value = "name", dS = "asyncMe") String name,
+      @Param("representation") Function<G, Representation<G>> representation,
+      @Param(value = "mapper", dNPM = "ea.m.identity()") InvertibleMapper<G, S> mapper,
+      @Param(value = "nPop", dI = 100) int nPop,
+      @Param(value = "nEval", dI = 1000) int nEval,
+      @Param(value = "nOfWorkers", dI = 4) int nOfWorkers,
+      @Param("descriptors") List<MapElites.Descriptor<G, S, Q>> descriptors) {
+    return exampleS -> {
+      Representation<G> r = representation.apply(mapper.exampleFor(exampleS));
+      return new AsyncMapElites<>(
+          mapper.mapperFor(exampleS),
+          r.factory(),
+          StopConditions.nOfFitnessEvaluations(nEval),
+          r.mutations().getFirst(),
+          nPop,
+          descriptors,
+          nOfWorkers);
+    };
+  }
+
   @SuppressWarnings("unused")
   @Cacheable
   public static <G, S, Q> Function<S, CellularAutomataBasedSolver<G, S, Q>> cabea(
@@ -98,13 +131,17 @@ public class Solvers {
       @Param(value = "mapper", dNPM = "ea.m.identity()") InvertibleMapper<List<Double>, S> mapper,
       @Param(value = "initialMinV", dD = -1d) double initialMinV,
       @Param(value = "initialMaxV", dD = 1d) double initialMaxV,
-      @Param(value = "nEval", dI = 1000) int nEval) {
+      @Param(value = "nEval", dI = 1000) int nEval,
+      @Param(value = "parallelUpdate") boolean parallelUpdate,
+      @Param(value = "asyncEigen") boolean asyncEigen) {
     return exampleS -> new CMAEvolutionaryStrategy<>(
         mapper.mapperFor(exampleS),
         Representations.doubleString(initialMinV, initialMaxV, 0)
             .apply(mapper.exampleFor(exampleS))
             .factory(),
-        StopConditions.nOfFitnessEvaluations(nEval));
+        StopConditions.nOfFitnessEvaluations(nEval),
+        parallelUpdate,
+        asyncEigen);
   }
 
   @SuppressWarnings("unused")
@@ -122,7 +159,8 @@ public class Solvers {
       @Param(value = "populationSize", dI = 100) int populationSize,
       @Param(value = "nOfOffspring", dI = 50) int nOfOffspring,
       @Param(value = "strategy", dS = "identity") CoMEStrategy.Prepared strategy,
-      @Param(value = "neighborRadius", dD = 2) double neighborRadius) {
+      @Param(value = "neighborRadius", dD = 2) double neighborRadius,
+      @Param(value = "earlyStop") boolean earlyStop) {
     return exampleS -> {
       Pair<S1, S2> splitExample = invertibleMapperMerger.exampleFor(exampleS);
       Representation<G1> r1 = representation1.apply(mapper1.exampleFor(splitExample.first()));
@@ -146,7 +184,33 @@ public class Solvers {
           populationSize,
           nOfOffspring,
           strategy,
-          neighborRadius);
+          neighborRadius,
+          earlyStop);
+    };
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <G, S, Q> Function<S, CvtMapElites<G, S, Q>> cvtMapElites(
+      @Param(value = "name", dS = "cvtMe") String name,
+      @Param("representation") Function<G, Representation<G>> representation,
+      @Param(value = "mapper", dNPM = "ea.m.identity()") InvertibleMapper<G, S> mapper,
+      @Param(value = "nPop", dI = 100) int nPop,
+      @Param(value = "nEval", dI = 1000) int nEval,
+      @Param(value = "nOfCentroids", dI = 1000) int nOfCentroids,
+      @Param(value = "nOfSamples", dI = 100000) int nOfSamples,
+      @Param("descriptors") List<MapElites.Descriptor<G, S, Q>> descriptors) {
+    return exampleS -> {
+      Representation<G> r = representation.apply(mapper.exampleFor(exampleS));
+      return new CvtMapElites<>(
+          mapper.mapperFor(exampleS),
+          r.factory(),
+          StopConditions.nOfFitnessEvaluations(nEval),
+          r.mutations().getFirst(),
+          nPop,
+          descriptors,
+          nOfCentroids,
+          nOfSamples);
     };
   }
 
@@ -186,7 +250,10 @@ public class Solvers {
       @Param(value = "nPop", dI = 100) int nPop,
       @Param(value = "nEval", dI = 1000) int nEval,
       @Param(value = "maxUniquenessAttempts", dI = 100) int maxUniquenessAttempts,
-      @Param(value = "remap") boolean remap) {
+      @Param(value = "uniquenessHistory") boolean uniquenessHistory,
+      @Param(value = "wideFingerprints") boolean wideFingerprints,
+      @Param(value = "remap") boolean remap,
+      @Param(value = "streaming") boolean streaming) {
     return exampleS -> {
       Representation<G> r = representation.apply(mapper.exampleFor(exampleS));
       return new StandardEvolver<>(
@@ -200,10 +267,28 @@ public class Solvers {
           nPop,
           true,
           maxUniquenessAttempts,
-          remap);
+          remap,
+          streaming,
+          uniquenessFilter(uniquenessHistory, wideFingerprints));
     };
   }
 
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <S, Q> Function<S, LMMAEvolutionaryStrategy<S, Q>> lmMaEs(
+      @Param(value = "name", dS = "lmMaEs") String name,
+      @Param(value = "mapper", dNPM = "ea.m.identity()") InvertibleMapper<List<Double>, S> mapper,
+      @Param(value = "initialMinV", dD = -1d) double initialMinV,
+      @Param(value = "initialMaxV", dD = 1d) double initialMaxV,
+      @Param(value = "nEval", dI = 1000) int nEval) {
+    return exampleS -> new LMMAEvolutionaryStrategy<>(
+        mapper.mapperFor(exampleS),
+        Representations.doubleString(initialMinV, initialMaxV, 0)
+            .apply(mapper.exampleFor(exampleS))
+            .factory(),
+        StopConditions.nOfFitnessEvaluations(nEval));
+  }
+
   @SuppressWarnings("unused")
   @Cacheable
   public static <G, S, Q> Function<S, MapElites<G, S, Q>> mapElites(
@@ -235,6 +320,8 @@ public class Solvers {
       @Param(value = "nPop", dI = 100) int nPop,
       @Param(value = "nEval", dI = 1000) int nEval,
       @Param(value = "maxUniquenessAttempts", dI = 100) int maxUniquenessAttempts,
+      @Param(value = "uniquenessHistory") boolean uniquenessHistory,
+      @Param(value = "wideFingerprints") boolean wideFingerprints,
       @Param(value = "remap") boolean remap) {
     return exampleS -> {
       Representation<G> r = representation.apply(mapper.exampleFor(exampleS));
@@ -245,7 +332,8 @@ public class Solvers {
           StopConditions.nOfFitnessEvaluations(nEval),
           r.geneticOperators(crossoverP),
           maxUniquenessAttempts,
-          remap);
+          remap,
+          uniquenessFilter(uniquenessHistory, wideFingerprints));
     };
   }
 
@@ -403,6 +491,22 @@ public class Solvers {
     };
   }
 
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static <S, Q> Function<S, SepCMAEvolutionaryStrategy<S, Q>> sepCmaEs(
+      @Param(value = "name", dS = "sepCmaEs") String name,
+      @Param(value = "mapper", dNPM = "ea.m.identity()") InvertibleMapper<List<Double>, S> mapper,
+      @Param(value = "initialMinV", dD = -1d) double initialMinV,
+      @Param(value = "initialMaxV", dD = 1d) double initialMaxV,
+      @Param(value = "nEval", dI = 1000) int nEval) {
+    return exampleS -> new SepCMAEvolutionaryStrategy<>(
+        mapper.mapperFor(exampleS),
+        Representations.doubleString(initialMinV, initialMaxV, 0)
+            .apply(mapper.exampleFor(exampleS))
+            .factory(),
+        StopConditions.nOfFitnessEvaluations(nEval));
+  }
+
   @SuppressWarnings("unused")
   @Cacheable
   public static <S, Q> Function<S, SimpleEvolutionaryStrategy<S, Q>> simpleEs(
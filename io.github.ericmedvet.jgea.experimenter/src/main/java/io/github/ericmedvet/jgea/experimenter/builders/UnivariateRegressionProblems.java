@@ -20,6 +20,7 @@
 
 package io.github.ericmedvet.jgea.experimenter.builders;
 
+import io.github.ericmedvet.jgea.core.representation.tree.numeric.SubtreeOutputCache;
 import io.github.ericmedvet.jgea.problem.regression.ListNumericalDataset;
 import io.github.ericmedvet.jgea.problem.regression.NumericalDataset;
 import io.github.ericmedvet.jgea.problem.regression.univariate.UnivariateRegressionFitness;
@@ -42,7 +43,9 @@ public class UnivariateRegressionProblems {
       @Param("name") String name,
       @Param(value = "metric", dS = "mse") UnivariateRegressionFitness.Metric metric,
       @Param(value = "xScaling", dS = "none") NumericalDataset.Scaling xScaling,
-      @Param(value = "yScaling", dS = "none") NumericalDataset.Scaling yScaling) {
+      @Param(value = "yScaling", dS = "none") NumericalDataset.Scaling yScaling,
+      @Param(value = "subtreeCacheMB", dI = 0) int subtreeCacheMB) {
+    SubtreeOutputCache cache = subtreeCache(subtreeCacheMB);
     NumericalDataset dataset;
     try {
       dataset = switch (name) {
@@ -59,10 +62,11 @@ public class UnivariateRegressionProblems {
     dataset = dataset.xScaled(xScaling).yScaled(yScaling);
     return switch (name) {
       case "concrete", "energy-efficiency", "wine" -> new UnivariateRegressionProblem<>(
-          new UnivariateRegressionFitness(dataset.folds(List.of(0, 1, 2, 3), 5), metric),
-          new UnivariateRegressionFitness(dataset.folds(List.of(4), 5), metric));
+          new UnivariateRegressionFitness(dataset.folds(List.of(0, 1, 2, 3), 5), metric, cache),
+          new UnivariateRegressionFitness(dataset.folds(List.of(4), 5), metric, cache));
       case "xor" -> new UnivariateRegressionProblem<>(
-          new UnivariateRegressionFitness(dataset, metric), new UnivariateRegressionFitness(dataset, metric));
+          new UnivariateRegressionFitness(dataset, metric, cache),
+          new UnivariateRegressionFitness(dataset, metric, cache));
       default -> throw new IllegalArgumentException("Unknown bundled dataset: %s".formatted(name));
     };
   }
@@ -75,11 +79,17 @@ public class UnivariateRegressionProblems {
       @Param(value = "testDataset", dNPM = "ea.d.num.empty()") Supplier<NumericalDataset> testDataset,
       @Param(value = "metric", dS = "mse") UnivariateRegressionFitness.Metric metric,
       @Param(value = "xScaling", dS = "none") NumericalDataset.Scaling xScaling,
-      @Param(value = "yScaling", dS = "none") NumericalDataset.Scaling yScaling) {
+      @Param(value = "yScaling", dS = "none") NumericalDataset.Scaling yScaling,
+      @Param(value = "subtreeCacheMB", dI = 0) int subtreeCacheMB) {
+    SubtreeOutputCache cache = subtreeCache(subtreeCacheMB);
     return new UnivariateRegressionProblem<>(
         new UnivariateRegressionFitness(
-            trainingDataset.get().xScaled(xScaling).yScaled(yScaling), metric),
-        testDataset != null ? new UnivariateRegressionFitness(testDataset.get(), metric) : null);
+            trainingDataset.get().xScaled(xScaling).yScaled(yScaling), metric, cache),
+        testDataset != null ? new UnivariateRegressionFitness(testDataset.get(), metric, cache) : null);
+  }
+
+  static SubtreeOutputCache subtreeCache(int sizeMB) {
+    return sizeMB > 0 ? new SubtreeOutputCache(sizeMB * 1024L * 1024L) : null;
   }
 
   @SuppressWarnings("unused")
@@ -185,6 +185,20 @@ public interface NumericalDataset {
         originalE.ys));
   }
 
+  default Map<String, double[]> xColumns() {
+    double[][] columns = new double[xVarNames().size()][size()];
+    IntFunction<Example> provider = exampleProvider();
+    for (int i = 0; i < size(); i++) {
+      double[] xs = provider.apply(i).xs;
+      for (int j = 0; j < xs.length; j++) {
+        columns[j][i] = xs[j];
+      }
+    }
+    return IntStream.range(0, xVarNames().size())
+        .boxed()
+        .collect(Collectors.toMap(xVarNames()::get, j -> columns[j]));
+  }
+
   default List<Double> xValues(String xName) {
     int xIndex = xVarNames().indexOf(xName);
     return IntStream.range(0, size())
@@ -22,6 +22,8 @@ package io.github.ericmedvet.jgea.problem.regression.multivariate;
 
 import io.github.ericmedvet.jgea.core.fitness.CaseBasedFitness;
 import io.github.ericmedvet.jgea.core.representation.NamedMultivariateRealFunction;
+import io.github.ericmedvet.jgea.core.representation.tree.numeric.SubtreeOutputCache;
+import io.github.ericmedvet.jgea.core.representation.tree.numeric.TreeBasedMultivariateRealFunction;
 import io.github.ericmedvet.jgea.problem.regression.NumericalDataset;
 import io.github.ericmedvet.jgea.problem.regression.univariate.UnivariateRegressionFitness;
 import java.util.List;
@@ -36,15 +38,47 @@ public class MultivariateRegressionFitness
     implements CaseBasedFitness<NamedMultivariateRealFunction, Map<String, Double>, Map<String, Double>, Double> {
   private final NumericalDataset dataset;
   private final UnivariateRegressionFitness.Metric metric;
+  private final SubtreeOutputCache cache;
+  private final Map<String, double[]> xColumns;
 
   private Map<String, List<Double>> actualYs;
+  private Map<String, double[]> actualYColumns;
 
-  public MultivariateRegressionFitness(NumericalDataset dataset, UnivariateRegressionFitness.Metric metric) {
+  public MultivariateRegressionFitness(
+      NumericalDataset dataset, UnivariateRegressionFitness.Metric metric, SubtreeOutputCache cache) {
     this.dataset = dataset;
     this.metric = metric;
+    this.cache = cache;
+    xColumns = cache == null ? null : dataset.xColumns();
     actualYs = null;
   }
 
+  public MultivariateRegressionFitness(NumericalDataset dataset, UnivariateRegressionFitness.Metric metric) {
+    this(dataset, metric, null);
+  }
+
+  @Override
+  public Double apply(NamedMultivariateRealFunction nmrf) {
+    if (cache != null && nmrf instanceof TreeBasedMultivariateRealFunction tbnmrf) {
+      double[][] predictedYs = tbnmrf.computeColumns(xColumns, dataset.size(), cache, this);
+      if (actualYColumns == null) {
+        actualYColumns = dataset.yVarNames().stream()
+            .collect(Collectors.toMap(yName -> yName, yName -> IntStream.range(0, dataset.size())
+                .mapToDouble(i -> dataset.namedExampleProvider()
+                    .apply(i)
+                    .y()
+                    .get(yName))
+                .toArray()));
+      }
+      List<String> yVarNames = tbnmrf.yVarNames();
+      return dataset.yVarNames().stream()
+          .mapToDouble(yName -> metric.apply(predictedYs[yVarNames.indexOf(yName)], actualYColumns.get(yName)))
+          .average()
+          .orElse(Double.NaN);
+    }
+    return CaseBasedFitness.super.apply(nmrf);
+  }
+
   @Override
   public Function<List<Map<String, Double>>, Double> aggregateFunction() {
     return outputs -> {
@@ -22,12 +22,16 @@ package io.github.ericmedvet.jgea.problem.regression.univariate;
 
 import io.github.ericmedvet.jgea.core.fitness.CaseBasedFitness;
 import io.github.ericmedvet.jgea.core.representation.NamedUnivariateRealFunction;
+import io.github.ericmedvet.jgea.core.representation.tree.numeric.SubtreeOutputCache;
+import io.github.ericmedvet.jgea.core.representation.tree.numeric.TreeBasedUnivariateRealFunction;
 import io.github.ericmedvet.jgea.problem.regression.NumericalDataset;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.IntFunction;
+import java.util.function.ToDoubleBiFunction;
 import java.util.stream.IntStream;
 
 public class UnivariateRegressionFitness
@@ -35,42 +39,55 @@ public class UnivariateRegressionFitness
 
   private final NumericalDataset dataset;
   private final Metric metric;
+  private final SubtreeOutputCache cache;
+  private final Map<String, double[]> xColumns;
 
   private List<Double> actualYs;
+  private double[] actualYColumn;
 
-  public UnivariateRegressionFitness(NumericalDataset dataset, Metric metric) {
+  public UnivariateRegressionFitness(NumericalDataset dataset, Metric metric, SubtreeOutputCache cache) {
     this.dataset = dataset;
     this.metric = metric;
+    this.cache = cache;
+    xColumns = cache == null ? null : dataset.xColumns();
     actualYs = null;
   }
 
+  public UnivariateRegressionFitness(NumericalDataset dataset, Metric metric) {
+    this(dataset, metric, null);
+  }
+
   public enum Metric implements Function<List<Y>, Double> {
-    MAE(ys -> ys.stream()
-        .mapToDouble(y -> Math.abs(y.predicted - y.actual))
+    MAE((predicted, actual) -> IntStream.range(0, actual.length)
+        .mapToDouble(i -> Math.abs(predicted[i] - actual[i]))
         .average()
         .orElse(Double.NaN)),
-    MSE(ys -> ys.stream()
-        .mapToDouble(y -> (y.predicted - y.actual) * (y.predicted - y.actual))
-        .average()
-        .orElse(Double.NaN)),
-    RMSE(ys -> Math.sqrt(ys.stream()
-        .mapToDouble(y -> (y.predicted - y.actual) * (y.predicted - y.actual))
-        .average()
-        .orElse(Double.NaN))),
-    NMSE(ys -> ys.stream()
-            .mapToDouble(y -> (y.predicted - y.actual) * (y.predicted - y.actual))
-            .average()
-            .orElse(Double.NaN)
-        / ys.stream().mapToDouble(y -> y.actual).average().orElse(1d));
-    private final Function<List<Y>, Double> function;
-
-    Metric(Function<List<Y>, Double> function) {
+    MSE(Metric::mse),
+    RMSE((predicted, actual) -> Math.sqrt(mse(predicted, actual))),
+    NMSE((predicted, actual) ->
+        mse(predicted, actual) / Arrays.stream(actual).average().orElse(1d));
+    private final ToDoubleBiFunction<double[], double[]> function;
+
+    Metric(ToDoubleBiFunction<double[], double[]> function) {
       this.function = function;
     }
 
+    private static double mse(double[] predicted, double[] actual) {
+      return IntStream.range(0, actual.length)
+          .mapToDouble(i -> (predicted[i] - actual[i]) * (predicted[i] - actual[i]))
+          .average()
+          .orElse(Double.NaN);
+    }
+
     @Override
     public Double apply(List<Y> ys) {
-      return function.apply(ys);
+      return apply(
+          ys.stream().mapToDouble(Y::predicted).toArray(),
+          ys.stream().mapToDouble(Y::actual).toArray());
+    }
+
+    public double apply(double[] predicted, double[] actual) {
+      return function.applyAsDouble(predicted, actual);
     }
   }
 
@@ -102,6 +119,20 @@ public class UnivariateRegressionFitness
     };
   }
 
+  @Override
+  public Double apply(NamedUnivariateRealFunction nurf) {
+    if (cache != null && nurf instanceof TreeBasedUnivariateRealFunction tbnurf) {
+      double[] predictedYs = tbnurf.computeColumn(xColumns, dataset.size(), cache, this);
+      if (actualYColumn == null) {
+        actualYColumn = IntStream.range(0, dataset.size())
+            .mapToDouble(i -> dataset.exampleProvider().apply(i).ys()[0])
+            .toArray();
+      }
+      return metric.apply(predictedYs, actualYColumn);
+    }
+    return CaseBasedFitness.super.apply(nurf);
+  }
+
   @Override
   public BiFunction<NamedUnivariateRealFunction, Map<String, Double>, Double> caseFunction() {
     return NamedUnivariateRealFunction::computeAsDouble;